@@ -27,6 +27,14 @@ public class Board {
 
     private final Pawn enPassantPawn;
     private final Move transitionMove;
+    private final long zobristHash;
+    private final int halfmoveClock;
+    // the sum of the piece values and location bonuses packed for the midgame and the endgame, the number of
+    // bishops and the phase weight of the pieces of each side, white first
+    private final int[] pieceSquareScores;
+    private final int[] bishopCounts;
+    private final int[] phaseWeights;
+    private final long pawnZobristHash;
 
     // Behavior: constructs a Board object.
     // Parameter:
@@ -45,6 +53,22 @@ public class Board {
 
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
         this.transitionMove = builder.transitionMove != null ? builder.transitionMove : Move.MoveFactory.getNullMove();
+        this.zobristHash = Zobrist.hash(this.gameBoard, builder.nextMoveMaker, this.enPassantPawn);
+        this.halfmoveClock = builder.halfmoveClock;
+        this.pieceSquareScores = new int[2];
+        this.bishopCounts = new int[2];
+        this.phaseWeights = new int[2];
+        final Board parent = this.transitionMove.getBoard();
+        if (parent != null) {
+            final int[] changedSquares = changedSquares(this.transitionMove);
+            updatePieceSquareScores(parent, changedSquares);
+            this.pawnZobristHash = parent.pawnZobristHash ^ pawnKeyChange(parent, changedSquares);
+        } else {
+            for (final Tile tile : this.gameBoard) {
+                addPieceSquareScore(tile.getPiece(), 1);
+            }
+            this.pawnZobristHash = Zobrist.pawnHash(this.gameBoard);
+        }
     }
 
     // Behavior: prints out the board
@@ -105,6 +129,104 @@ public class Board {
         return this.transitionMove;
     }
 
+    // Behavior: returns the Zobrist key of this position, equal for boards with the same pieces, side to move,
+    //           castling rights and en passant square
+    public long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    // Behavior: returns the number of half moves since the last capture or pawn move
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    // Behavior: returns the sum of the values and location bonuses of the alliance's pieces as a TaperedScore,
+    //           midgame and endgame bonuses packed together, kept up to date move by move instead of being summed
+    //           over the pieces
+    public int getPieceSquareScore(final Alliance alliance) {
+        return this.pieceSquareScores[allianceIndex(alliance)];
+    }
+
+    // Behavior: returns how far from the endgame the board is by the pieces left, from TaperedScore.MAX_PHASE
+    //           with all of them down to 0 with only kings and pawns
+    public int getPhase() {
+        return Math.min(TaperedScore.MAX_PHASE, this.phaseWeights[0] + this.phaseWeights[1]);
+    }
+
+    // Behavior: returns the number of bishops the alliance has on the board
+    public int getBishopCount(final Alliance alliance) {
+        return this.bishopCounts[allianceIndex(alliance)];
+    }
+
+    // Behavior: returns the Zobrist key of the pawns alone, equal for boards with the same pawns on the same squares
+    //           whatever the other pieces, for caching terms that only depend on the pawns
+    public long getPawnZobristHash() {
+        return this.pawnZobristHash;
+    }
+
+    // Return: the squares whose piece the move changed: the origin and destination, the square of a pawn taken
+    //         en passant and the castling rook's squares. A promotion needs nothing more, the piece found on the
+    //         destination is the promoted one. Evaluators keeping their own incremental state use it to go from
+    //         the parent board to this one.
+    public static int[] changedSquares(final Move move) {
+        if (move.isAttack() && move.getAttackedPiece().getPiecePosition() != move.getDestinationCoordinate()) {
+            return new int[] {move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                    move.getAttackedPiece().getPiecePosition()};
+        }
+        if (move instanceof Move.CastleMove castleMove) {
+            return new int[] {move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                    castleMove.castleRookStart, castleMove.castleRookDestination};
+        }
+        return new int[] {move.getCurrentCoordinate(), move.getDestinationCoordinate()};
+    }
+
+    // Behavior: starts from the parent board's sums and replaces the pieces on the squares the move changed
+    // Parameter:
+    //      parent: the board the move was made on
+    //      changedSquares: the squares whose piece differs between the parent and this board
+    private void updatePieceSquareScores(final Board parent,
+                                         final int[] changedSquares) {
+        System.arraycopy(parent.pieceSquareScores, 0, this.pieceSquareScores, 0, 2);
+        System.arraycopy(parent.bishopCounts, 0, this.bishopCounts, 0, 2);
+        System.arraycopy(parent.phaseWeights, 0, this.phaseWeights, 0, 2);
+        for (final int coordinate : changedSquares) {
+            replacePiece(parent, coordinate);
+        }
+    }
+
+    private long pawnKeyChange(final Board parent,
+                               final int[] changedSquares) {
+        long change = 0;
+        for (final int coordinate : changedSquares) {
+            change ^= Zobrist.pawnKey(parent.getPiece(coordinate)) ^ Zobrist.pawnKey(getPiece(coordinate));
+        }
+        return change;
+    }
+
+    private void replacePiece(final Board parent,
+                              final int coordinate) {
+        addPieceSquareScore(parent.getPiece(coordinate), -1);
+        addPieceSquareScore(getPiece(coordinate), 1);
+    }
+
+    private void addPieceSquareScore(final Piece piece,
+                                     final int sign) {
+        if (piece == null) {
+            return;
+        }
+        final int index = allianceIndex(piece.getPieceAlliance());
+        this.pieceSquareScores[index] += sign * TaperedScore.pack(piece.getPieceValue() + piece.locationBonus(),
+                piece.getPieceValue() + piece.endgameLocationBonus());
+        if (piece.getPieceType() == Piece.PieceType.BISHOP) {
+            this.bishopCounts[index] += sign;
+        }
+        this.phaseWeights[index] += sign * TaperedScore.phaseWeight(piece.getPieceType());
+    }
+
+    private static int allianceIndex(final Alliance alliance) {
+        return alliance.isWhite() ? 0 : 1;
+    }
+
 
     // Behavior: builds the list of all the legal moves given a collection of pieces
     // Return: returns a list of all the legal moves
@@ -218,6 +340,7 @@ public class Board {
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
         Move transitionMove;
+        int halfmoveClock;
 
         // Behavior: constructs a Builder object.
         public Builder() {
@@ -246,6 +369,24 @@ public class Board {
             this.enPassantPawn = enPassantPawn;
         }
 
+        // Behavior: records the move that leads to the board being built, linking it to its parent board
+        // Return: returns the state of the builder object
+        // Parameter:
+        //      transitionMove: the move made on the parent board
+        public Builder setMoveTransition(final Move transitionMove) {
+            this.transitionMove = transitionMove;
+            return this;
+        }
+
+        // Behavior: sets the number of half moves since the last capture or pawn move
+        // Return: returns the state of the builder object
+        // Parameter:
+        //      halfmoveClock: the number of reversible half moves played
+        public Builder setHalfmoveClock(final int halfmoveClock) {
+            this.halfmoveClock = halfmoveClock;
+            return this;
+        }
+
         public Board build() {
             return new Board(this);
         }
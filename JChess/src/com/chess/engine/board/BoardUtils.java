@@ -153,4 +153,27 @@ public class BoardUtils {
         return board.currentPlayer().isInCheckMate() ||
                 board.currentPlayer().isInStaleMate();
     }
+
+    // Behavior: counts the earlier occurrences of the board's position, looking back only through the moves
+    //           since the last capture or pawn move, as no position before those can occur again
+    public static int countRepetitions(final Board board) {
+        int repetitions = 0;
+        Move move = board.getTransitionMove();
+        for (int i = 0; i < board.getHalfmoveClock() && move != Move.MoveFactory.getNullMove(); i++) {
+            final Board previous = move.getBoard();
+            if (previous.getZobristHash() == board.getZobristHash()) {
+                repetitions++;
+            }
+            move = previous.getTransitionMove();
+        }
+        return repetitions;
+    }
+
+    public static boolean isThreefoldRepetition(final Board board) {
+        return countRepetitions(board) >= 2;
+    }
+
+    public static boolean isFiftyMoveRule(final Board board) {
+        return board.getHalfmoveClock() >= 100;
+    }
 }
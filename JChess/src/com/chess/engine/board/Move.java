@@ -119,10 +119,20 @@ public abstract class Move {
         // moves the moved piece
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+        builder.setMoveTransition(this);
+        builder.setHalfmoveClock(nextHalfmoveClock());
 
         return builder.build();
     }
 
+    // Behavior: returns the halfmove clock of the board this move leads to. Pawn moves and captures reset it.
+    protected int nextHalfmoveClock() {
+        if (this.movedPiece.getPieceType() == Piece.PieceType.PAWN || isAttack()) {
+            return 0;
+        }
+        return this.board.getHalfmoveClock() + 1;
+    }
+
     // This class is of the MajorMove object. It represents a transitional move for a chess piece.
     public static final class MajorMove extends Move {
 
@@ -258,6 +268,8 @@ public abstract class Move {
 
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setMoveTransition(this);
+            builder.setHalfmoveClock(nextHalfmoveClock());
             return builder.build();
         }
     }
@@ -285,8 +297,6 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-
-            final Board pawnMovedBoard = this.decoratedMove.execute();
             final Board.Builder builder = new Builder();
             for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
                 if (!this.promotedPawn.equals(piece)) {
@@ -297,7 +307,9 @@ public abstract class Move {
                 builder.setPiece(piece);
             }
             builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
-            builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setMoveTransition(this);
+            builder.setHalfmoveClock(nextHalfmoveClock());
             return builder.build();
         }
 
@@ -353,6 +365,8 @@ public abstract class Move {
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setMoveTransition(this);
+            builder.setHalfmoveClock(nextHalfmoveClock());
             return builder.build();
         }
 
@@ -412,6 +426,8 @@ public abstract class Move {
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setMoveTransition(this);
+            builder.setHalfmoveClock(nextHalfmoveClock());
             return builder.build();
         }
 
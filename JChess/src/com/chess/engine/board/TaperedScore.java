@@ -0,0 +1,44 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+// This class packs a midgame and an endgame score into one int, the endgame score in the high 16 bits and the
+// midgame score in the low 16 bits, so that adding two packed scores adds both halves at once. A term scored
+// for both phases costs one addition, and the sum is blended by the game phase once at the end.
+// Each half must stay within a short: the material and location bonuses of one side come to under 22000.
+public final class TaperedScore {
+
+    // the phase of the starting material, a full midgame. Phase 0 is a bare endgame of kings and pawns.
+    public static final int MAX_PHASE = 24;
+    // indexed by PieceType ordinal: pawn, knight, bishop, rook, queen, king
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+    private TaperedScore() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    public static int pack(final int midgame,
+                           final int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    public static int midgame(final int packed) {
+        return (short) packed;
+    }
+
+    // Behavior: undoes the borrow a negative midgame half takes from the endgame half
+    public static int endgame(final int packed) {
+        return (short) ((packed + 0x8000) >> 16);
+    }
+
+    // Return: the midgame and endgame halves mixed by the phase, all midgame at MAX_PHASE and all endgame at 0
+    public static int blend(final int packed,
+                            final int phase) {
+        return (midgame(packed) * phase + endgame(packed) * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    // Return: what the piece adds to its side's phase, the sum over both sides being capped at MAX_PHASE
+    public static int phaseWeight(final Piece.PieceType pieceType) {
+        return PHASE_WEIGHTS[pieceType.ordinal()];
+    }
+}
@@ -0,0 +1,125 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Piece;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+// This class computes Zobrist hashes: a 64 bit key per position built by xor-ing one random number for every
+// piece on its square, for the side to move, the castling rights, the en passant file and whether each king
+// has castled (the evaluator scores castled kings, so positions differing only there must not share a key).
+public final class Zobrist {
+
+    private static final long SEED = 0x4D6F636B46697368L;
+    private static final int NUM_PIECE_KEYS = Piece.PieceType.values().length * 2;
+
+    private static final long[][] PIECE_KEYS = new long[NUM_PIECE_KEYS][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[4];
+    private static final long[] CASTLED_KEYS = new long[2];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < CASTLED_KEYS.length; i++) {
+            CASTLED_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    // Behavior: computes the hash of a position from scratch
+    // Return: the 64 bit Zobrist key of the position
+    // Parameter:
+    //      tiles: the 64 tiles of the board
+    //      sideToMove: the alliance of the player to move
+    //      enPassantPawn: the pawn that can be taken en passant, or null
+    static long hash(final List<Tile> tiles,
+                     final Alliance sideToMove,
+                     final Piece enPassantPawn) {
+        long key = 0;
+        for (final Tile tile : tiles) {
+            if (tile.isTileOccupied()) {
+                final Piece piece = tile.getPiece();
+                key ^= pieceKey(piece);
+                if (piece.getPieceType().isKing()) {
+                    key ^= kingKeys((King) piece, tiles);
+                }
+            }
+        }
+        if (enPassantPawn != null) {
+            key ^= EN_PASSANT_KEYS[enPassantPawn.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW];
+        }
+        if (sideToMove.isBlack()) {
+            key ^= BLACK_TO_MOVE_KEY;
+        }
+        return key;
+    }
+
+    // Behavior: computes the hash of the pawns of a position from scratch
+    // Return: the xor of the keys of every pawn on the board
+    static long pawnHash(final List<Tile> tiles) {
+        long key = 0;
+        for (final Tile tile : tiles) {
+            key ^= pawnKey(tile.getPiece());
+        }
+        return key;
+    }
+
+    // Return: the key of the piece if it is a pawn, 0 for any other piece or an empty square
+    static long pawnKey(final Piece piece) {
+        return piece != null && piece.getPieceType() == Piece.PieceType.PAWN ? pieceKey(piece) : 0;
+    }
+
+    // Behavior: returns the key of a piece standing on its square
+    public static long pieceKey(final Piece piece) {
+        return PIECE_KEYS[pieceIndex(piece)][piece.getPiecePosition()];
+    }
+
+    static int pieceIndex(final Piece piece) {
+        return piece.getPieceType().ordinal() * 2 + (piece.getPieceAlliance().isWhite() ? 0 : 1);
+    }
+
+    // Behavior: castling is possible while the king and the corner rook have not moved, so the rights are
+    //           read off the pieces themselves
+    private static long kingKeys(final King king,
+                                 final List<Tile> tiles) {
+        final int colour = king.getPieceAlliance().isWhite() ? 0 : 1;
+        long key = 0;
+        if (king.isCastled()) {
+            key ^= CASTLED_KEYS[colour];
+        }
+        if (king.isFirstMove()) {
+            final int backRank = king.getPiecePosition() - king.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW;
+            if (isUnmovedRook(tiles.get(backRank + BoardUtils.NUM_TILES_PER_ROW - 1), king.getPieceAlliance())) {
+                key ^= CASTLING_KEYS[colour * 2];
+            }
+            if (isUnmovedRook(tiles.get(backRank), king.getPieceAlliance())) {
+                key ^= CASTLING_KEYS[colour * 2 + 1];
+            }
+        }
+        return key;
+    }
+
+    private static boolean isUnmovedRook(final Tile tile,
+                                         final Alliance alliance) {
+        return tile.isTileOccupied() && tile.getPiece().getPieceType().isRook() &&
+                tile.getPiece().getPieceAlliance() == alliance && tile.getPiece().isFirstMove();
+    }
+}
@@ -67,6 +67,11 @@ public class King extends Piece {
         return this.pieceAlliance.kingBonus(this.piecePosition);
     }
 
+    @Override
+    public int endgameLocationBonus() {
+        return this.pieceAlliance.kingEndgameBonus(this.piecePosition);
+    }
+
     // Behavior: this method calculates a list of legal moves for the piece. Valid spaces must be on the board. If a space
     //           is occupied, the space is only valid if the alliance is opposite of the current piece
     // Return: returns a list of legal moves
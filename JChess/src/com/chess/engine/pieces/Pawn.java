@@ -38,6 +38,11 @@ public class Pawn extends Piece {
         return this.pieceAlliance.pawnBonus(this.piecePosition);
     }
 
+    @Override
+    public int endgameLocationBonus() {
+        return this.pieceAlliance.pawnEndgameBonus(this.piecePosition);
+    }
+
     // Behavior: this method calculates a list of legal moves for the piece. Valid spaces must be on the board. If a space
     //           is occupied, the space is only valid if the alliance is opposite of the current piece
     // Return: returns a list of legal moves
@@ -82,6 +82,12 @@ public abstract class Piece {
 
     public abstract int locationBonus();
 
+    // Behavior: returns the location bonus of the piece in the endgame, the midgame one for the pieces whose
+    //           best squares do not change as the board empties
+    public int endgameLocationBonus() {
+        return locationBonus();
+    }
+
     // Behavior: calculates a list of the legal moves for the given piece
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
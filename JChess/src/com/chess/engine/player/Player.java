@@ -38,6 +38,11 @@ public abstract class Player {
     }
 
 
+    // Behavior: returns the board this player is part of
+    public Board getBoard() {
+        return this.board;
+    }
+
     // Behavior: returns the player king
     public King getPlayerKing() {
         return this.playerKing;
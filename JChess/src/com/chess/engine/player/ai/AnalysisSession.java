@@ -0,0 +1,92 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// This class analyzes one position at a time without a depth or time limit, until it is stopped or given
+// another position. Every completed iteration is published to the subscribers of getSearchEvents with its
+// depth, score, node counts and principal variation.
+// All positions are searched by the same engine on the same thread, so a restart first lets the stopped search
+// unwind, then starts from the transposition table the earlier positions filled: stepping back and forth through
+// a game finds most of the previous work again.
+public final class AnalysisSession {
+
+    private final StockAlphaBeta strategy;
+    private final ExecutorService executor;
+    private Board board;
+    private SearchController controller;
+    private Future<SearchResult> analysis;
+
+    public AnalysisSession() {
+        this(1);
+    }
+
+    // Parameter:
+    //      parallelism: the number of threads splitting the root of each search
+    public AnalysisSession(final int parallelism) {
+        this.strategy = new StockAlphaBeta(SearchLimits.MAX_SEARCH_DEPTH, parallelism);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SearchEventPublisher getSearchEvents() {
+        return this.strategy.getSearchEvents();
+    }
+
+    // Behavior: stops the analysis of the previous position, if any, and starts analyzing the board
+    public synchronized void analyze(final Board board) {
+        stopSearch();
+        final SearchController controller = new SearchController(SearchLimits.infinite());
+        this.board = board;
+        this.controller = controller;
+        this.analysis = this.executor.submit(() -> this.strategy.search(board, controller));
+    }
+
+    // Behavior: stops the analysis and waits for the search to unwind
+    // Return: the result of the deepest iteration, or null if nothing was being analyzed
+    public synchronized SearchResult stop() {
+        if (this.analysis == null) {
+            return null;
+        }
+        stopSearch();
+        try {
+            return this.analysis.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("analysis of " + this.board + " failed", e.getCause());
+        } finally {
+            this.analysis = null;
+            this.controller = null;
+        }
+    }
+
+    public synchronized boolean isAnalyzing() {
+        return this.analysis != null && !this.analysis.isDone();
+    }
+
+    // Return: the position analyzed last, or null if no position was given yet
+    public synchronized Board getBoard() {
+        return this.board;
+    }
+
+    // Behavior: stops the analysis and its thread, the session cannot analyze again
+    public synchronized void close() {
+        stopSearch();
+        this.executor.shutdown();
+    }
+
+    private void stopSearch() {
+        if (this.controller != null) {
+            this.controller.stop();
+        }
+    }
+}
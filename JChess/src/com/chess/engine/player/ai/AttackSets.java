@@ -0,0 +1,243 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// This class reads the evaluation terms that depend on where the pieces can go off 64 bit square sets, bit i
+// standing for square i, instead of the players' move lists: the number of squares each side's pieces can move
+// to, the number of captures of a piece worth at least the capturing one, the enemy piece that can get closest
+// to each king and the enemy pieces attacking each king's zone. No Move is created, the sets are built from the
+// occupancy with precomputed knight, king and pawn masks and precomputed rays for the sliders.
+// Castling and en passant are left out, the sets are what the pieces themselves attack or can step to.
+public final class AttackSets {
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+    private static final int[][] DIAGONALS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] ORTHOGONALS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] KING_ATTACKS = new long[BoardUtils.NUM_TILES];
+    private static final long[][] PAWN_ATTACKS = new long[2][BoardUtils.NUM_TILES];
+    // the squares along each direction from each square, nearest first, diagonals then orthogonals
+    private static final int[][][] RAYS = new int[DIAGONALS.length + ORTHOGONALS.length][BoardUtils.NUM_TILES][];
+
+    static {
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            KNIGHT_ATTACKS[square] = steps(square, KNIGHT_STEPS);
+            KING_ATTACKS[square] = steps(square, DIAGONALS) | steps(square, ORTHOGONALS);
+            // white pawns move towards the eighth rank, the low squares
+            PAWN_ATTACKS[WHITE][square] = steps(square, new int[][] {{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[BLACK][square] = steps(square, new int[][] {{1, -1}, {1, 1}});
+            for (int direction = 0; direction < RAYS.length; direction++) {
+                final int[] step = direction < DIAGONALS.length ? DIAGONALS[direction] :
+                        ORTHOGONALS[direction - DIAGONALS.length];
+                RAYS[direction][square] = ray(square, step[0], step[1]);
+            }
+        }
+    }
+
+    private final long[] occupancy;
+    private final int[] mobility;
+    private final int[] favourableAttacks;
+    private final Piece[] closestAttacker;
+    private final int[] closestDistance;
+    private final int[] kingZoneAttackers;
+    private final int[] kingZoneAttackWeight;
+
+    // Behavior: builds the sets of every piece of the board and sums them up per side in one pass
+    public AttackSets(final Board board) {
+        this.occupancy = new long[] {occupancy(board.getWhitePieces()), occupancy(board.getBlackPieces())};
+        this.mobility = new int[2];
+        this.favourableAttacks = new int[2];
+        this.closestAttacker = new Piece[2];
+        this.closestDistance = new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE};
+        this.kingZoneAttackers = new int[2];
+        this.kingZoneAttackWeight = new int[2];
+        final int[] kingSquares = {board.whitePlayer().getPlayerKing().getPiecePosition(),
+                board.blackPlayer().getPlayerKing().getPiecePosition()};
+        addPieces(board, board.getWhitePieces(), WHITE, kingSquares[BLACK]);
+        addPieces(board, board.getBlackPieces(), BLACK, kingSquares[WHITE]);
+    }
+
+    // Return: the squares the piece attacks given the occupied squares, own pieces included since they are
+    //         defended. A pawn attacks its two diagonal squares whether or not anything stands there.
+    public static long attacks(final Piece piece,
+                               final long occupied) {
+        final int square = piece.getPiecePosition();
+        switch (piece.getPieceType()) {
+            case PAWN:
+                return PAWN_ATTACKS[index(piece.getPieceAlliance())][square];
+            case KNIGHT:
+                return KNIGHT_ATTACKS[square];
+            case BISHOP:
+                return slide(square, occupied, 0, DIAGONALS.length);
+            case ROOK:
+                return slide(square, occupied, DIAGONALS.length, RAYS.length);
+            case QUEEN:
+                return slide(square, occupied, 0, RAYS.length);
+            default:
+                return KING_ATTACKS[square];
+        }
+    }
+
+    // Return: the squares of the alliance's pieces
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[index(alliance)];
+    }
+
+    // Return: the number of squares the alliance's pieces can move to, captures included, castling and en passant not
+    public int getMobility(final Alliance alliance) {
+        return this.mobility[index(alliance)];
+    }
+
+    // Return: the number of captures by the alliance of a piece worth at least as much as the capturing piece
+    public int getFavourableAttacks(final Alliance alliance) {
+        return this.favourableAttacks[index(alliance)];
+    }
+
+    // Return: the enemy piece that can move closest to the alliance's king, or null if the enemy cannot move
+    public Piece getClosestAttacker(final Alliance alliance) {
+        return this.closestAttacker[index(alliance)];
+    }
+
+    // Return: the Chebyshev distance from the alliance's king to the closest square an enemy piece can move to
+    public int getClosestAttackerDistance(final Alliance alliance) {
+        return this.closestDistance[index(alliance)];
+    }
+
+    // Return: the number of enemy pieces attacking at least one square of the alliance's king zone
+    public int getKingZoneAttackers(final Alliance alliance) {
+        return this.kingZoneAttackers[index(alliance)];
+    }
+
+    // Return: the sum over the enemy pieces of the king zone squares they attack, each weighted by the attacker
+    public int getKingZoneAttackWeight(final Alliance alliance) {
+        return this.kingZoneAttackWeight[index(alliance)];
+    }
+
+    private void addPieces(final Board board,
+                           final Collection<Piece> pieces,
+                           final int side,
+                           final int enemyKingSquare) {
+        final long own = this.occupancy[side];
+        final long enemy = this.occupancy[1 - side];
+        final long enemyKingZone = KingSafetyAnalyzer.kingZone(side == WHITE ? Alliance.BLACK : Alliance.WHITE,
+                enemyKingSquare);
+        for (final Piece piece : pieces) {
+            final long attacks = attacks(piece, own | enemy);
+            final long targets = piece.getPieceType() == Piece.PieceType.PAWN ? pawnTargets(piece, side, own, enemy) :
+                    attacks & ~own;
+            this.mobility[side] += Long.bitCount(targets);
+            for (long captures = targets & enemy; captures != 0; captures &= captures - 1) {
+                if (piece.getPieceValue() <= board.getPiece(Long.numberOfTrailingZeros(captures)).getPieceValue()) {
+                    this.favourableAttacks[side]++;
+                }
+            }
+            final int distance = closestDistance(targets, enemyKingSquare);
+            if (distance < this.closestDistance[1 - side]) {
+                this.closestDistance[1 - side] = distance;
+                this.closestAttacker[1 - side] = piece;
+            }
+            final long kingZoneHits = attacks & enemyKingZone;
+            if (kingZoneHits != 0) {
+                this.kingZoneAttackers[1 - side]++;
+                this.kingZoneAttackWeight[1 - side] += Long.bitCount(kingZoneHits) *
+                        KingSafetyAnalyzer.kingZoneAttackWeight(piece.getPieceType());
+            }
+        }
+    }
+
+    // Return: the squares the pawn can move to: the captures of enemy pieces and the pushes onto empty squares
+    private static long pawnTargets(final Piece piece,
+                                    final int side,
+                                    final long own,
+                                    final long enemy) {
+        final long occupied = own | enemy;
+        final int square = piece.getPiecePosition();
+        final int forward = side == WHITE ? -BoardUtils.NUM_TILES_PER_ROW : BoardUtils.NUM_TILES_PER_ROW;
+        long targets = PAWN_ATTACKS[side][square] & enemy;
+        final int push = square + forward;
+        if (push >= 0 && push < BoardUtils.NUM_TILES && (occupied & 1L << push) == 0) {
+            targets |= 1L << push;
+            final int startRow = side == WHITE ? 6 : 1;
+            final int jump = push + forward;
+            if (square / BoardUtils.NUM_TILES_PER_ROW == startRow && (occupied & 1L << jump) == 0) {
+                targets |= 1L << jump;
+            }
+        }
+        return targets;
+    }
+
+    private static int closestDistance(final long squares,
+                                       final int kingSquare) {
+        int closest = Integer.MAX_VALUE;
+        for (long remaining = squares; remaining != 0; remaining &= remaining - 1) {
+            final int square = Long.numberOfTrailingZeros(remaining);
+            closest = Math.min(closest, KingSafetyAnalyzer.distance(square, kingSquare));
+        }
+        return closest;
+    }
+
+    private static long slide(final int square,
+                              final long occupied,
+                              final int fromDirection,
+                              final int toDirection) {
+        long attacks = 0;
+        for (int direction = fromDirection; direction < toDirection; direction++) {
+            for (final int target : RAYS[direction][square]) {
+                attacks |= 1L << target;
+                if ((occupied & 1L << target) != 0) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static long occupancy(final Collection<Piece> pieces) {
+        long occupancy = 0;
+        for (final Piece piece : pieces) {
+            occupancy |= 1L << piece.getPiecePosition();
+        }
+        return occupancy;
+    }
+
+    private static long steps(final int square,
+                              final int[][] steps) {
+        long targets = 0;
+        for (final int[] step : steps) {
+            final int row = square / BoardUtils.NUM_TILES_PER_ROW + step[0];
+            final int column = square % BoardUtils.NUM_TILES_PER_ROW + step[1];
+            if (row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW) {
+                targets |= 1L << (row * BoardUtils.NUM_TILES_PER_ROW + column);
+            }
+        }
+        return targets;
+    }
+
+    private static int[] ray(final int square,
+                             final int rowStep,
+                             final int columnStep) {
+        final int[] squares = new int[BoardUtils.NUM_TILES_PER_ROW];
+        int length = 0;
+        int row = square / BoardUtils.NUM_TILES_PER_ROW + rowStep;
+        int column = square % BoardUtils.NUM_TILES_PER_ROW + columnStep;
+        while (row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW) {
+            squares[length++] = row * BoardUtils.NUM_TILES_PER_ROW + column;
+            row += rowStep;
+            column += columnStep;
+        }
+        return Arrays.copyOf(squares, length);
+    }
+
+    private static int index(final Alliance alliance) {
+        return alliance.isWhite() ? WHITE : BLACK;
+    }
+}
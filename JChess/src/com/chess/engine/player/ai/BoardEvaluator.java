@@ -3,5 +3,32 @@ package com.chess.engine.player.ai;
 import com.chess.engine.board.Board;
 
 public interface BoardEvaluator {
+
+    // returned by lazyBound when the cheap terms do not decide the window
+    int UNDECIDED = Integer.MIN_VALUE;
+
     int evaluate(Board board, int depth);
+
+    // Return: the score from white's point of view, or a bound on it at or past alpha or beta when the terms
+    //         that are cheap to compute already place the score outside the window
+    // Parameter:
+    //      alpha: the lower end of the window, from white's point of view
+    //      beta: the upper end of the window, from white's point of view
+    default int evaluate(final Board board,
+                         final int depth,
+                         final int alpha,
+                         final int beta) {
+        final int bound = lazyBound(board, depth, alpha, beta);
+        return bound != UNDECIDED ? bound : evaluate(board, depth);
+    }
+
+    // Return: a score at or below alpha that the true score cannot beat, or one at or above beta that it cannot
+    //         fall under, computed from the cheap terms alone, or UNDECIDED if they leave it open. Evaluators
+    //         without cheap terms always leave it open.
+    default int lazyBound(final Board board,
+                          final int depth,
+                          final int alpha,
+                          final int beta) {
+        return UNDECIDED;
+    }
 }
@@ -0,0 +1,126 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// This class puts a fixed size hash table of evaluations in front of any board evaluator, so a position reached
+// again anywhere in the tree, by any search thread, is scored once. The depth passed to evaluate is part of
+// the key, evaluators may score mated positions by it.
+// The table is shared without locks like the transposition table: every slot is the packed entry and the key
+// xor-ed with it, a slot torn by two threads writing at once reads as a miss and the position is scored again.
+public final class CachingBoardEvaluator implements BoardEvaluator {
+
+    public static final int DEFAULT_SIZE_IN_MEGABYTES = 4;
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final long PRESENT = 1L << 32;
+    private static final long SCORE_MASK = 0xFFFFFFFFL;
+    private static final long DEPTH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final BoardEvaluator evaluator;
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public CachingBoardEvaluator(final BoardEvaluator evaluator) {
+        this(evaluator, DEFAULT_SIZE_IN_MEGABYTES);
+    }
+
+    // Parameter:
+    //      evaluator: the evaluator scoring the positions missing from the table
+    //      sizeInMegabytes: the size of the table, rounded down to a power of two entries
+    public CachingBoardEvaluator(final BoardEvaluator evaluator,
+                                 final int sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("evaluation cache size must be at least 1 MB, was " + sizeInMegabytes);
+        }
+        final int numEntries = Integer.highestOneBit((int) Math.min((long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY,
+                1 << 30));
+        this.evaluator = evaluator;
+        this.keys = new long[numEntries];
+        this.entries = new long[numEntries];
+        this.mask = numEntries - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    @Override
+    public int evaluate(final Board board,
+                        final int depth) {
+        final long key = key(board, depth);
+        final long entry = probe(key);
+        if (entry != 0) {
+            this.hits.increment();
+            return (int) entry;
+        }
+        this.misses.increment();
+        final int score = this.evaluator.evaluate(board, depth);
+        final int index = (int) key & this.mask;
+        final long newEntry = PRESENT | score & SCORE_MASK;
+        this.entries[index] = newEntry;
+        this.keys[index] = key ^ newEntry;
+        return score;
+    }
+
+    // Return: UNDECIDED if the table holds the board, evaluate then answers exactly at the cost of a probe, and
+    //         the wrapped evaluator's bound otherwise
+    @Override
+    public int lazyBound(final Board board,
+                         final int depth,
+                         final int alpha,
+                         final int beta) {
+        if (probe(key(board, depth)) != 0) {
+            return UNDECIDED;
+        }
+        return this.evaluator.lazyBound(board, depth, alpha, beta);
+    }
+
+    private static long key(final Board board,
+                            final int depth) {
+        return board.getZobristHash() ^ depth * DEPTH_MULTIPLIER;
+    }
+
+    // Return: the entry stored under the key, or 0 if its slot holds another key or was torn by a racing write
+    private long probe(final long key) {
+        final int index = (int) key & this.mask;
+        final long entry = this.entries[index];
+        return entry != 0 && (this.keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    // Return: the evaluator behind the table
+    public BoardEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    // Return: the share of evaluations answered by the table, 0 before the first one
+    public double getHitRate() {
+        final long hits = getHits();
+        final long probes = hits + getMisses();
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    // Behavior: empties the table and resets the counters. Not safe while a search is evaluating.
+    public void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.keys[i] = 0;
+            this.entries[i] = 0;
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "cached " + this.evaluator + " (" + this.entries.length + " entries)";
+    }
+}
@@ -0,0 +1,162 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// This class collects, term by term, what StandardBoardEvaluator's evaluations cost and what they scored: how
+// often each term was computed, the nanoseconds spent in it and the sum of its scores for each side. Evaluators
+// add to it as they go, so it can be shared by the threads of a search and read while the search is running.
+// The timings include the clock reads around each term, they compare terms with each other rather than give
+// their cost in a normal evaluation.
+public final class EvalBreakdown {
+
+    public enum Term {
+        MOBILITY("mobility"),
+        KING_THREATS("kingThreats"),
+        ATTACKS("attacks"),
+        CASTLE("castle"),
+        PIECE_EVALUATIONS("pieceEvaluations"),
+        PAWN_STRUCTURE("pawnStructure"),
+        KING_SAFETY("kingSafety");
+
+        private final String termName;
+
+        Term(final String termName) {
+            this.termName = termName;
+        }
+
+        @Override
+        public String toString() {
+            return this.termName;
+        }
+    }
+
+    private static final int NUM_TERMS = Term.values().length;
+
+    private final LongAdder evaluations;
+    private final LongAdder[] calls;
+    private final LongAdder[] nanos;
+    // the sums of the scores of each term, white's and black's, and of their absolute values
+    private final LongAdder[] whiteScores;
+    private final LongAdder[] blackScores;
+    private final LongAdder[] absoluteScores;
+
+    public EvalBreakdown() {
+        this.evaluations = new LongAdder();
+        this.calls = newAdders();
+        this.nanos = newAdders();
+        this.whiteScores = newAdders();
+        this.blackScores = newAdders();
+        this.absoluteScores = newAdders();
+    }
+
+    // Behavior: returns the number of full evaluations recorded. The terms of a lazy evaluation are counted
+    //           under their calls without adding an evaluation.
+    public long getEvaluations() {
+        return this.evaluations.sum();
+    }
+
+    // Behavior: returns how many times the term was computed, once per side in each evaluation
+    public long getCalls(final Term term) {
+        return this.calls[term.ordinal()].sum();
+    }
+
+    public long getNanos(final Term term) {
+        return this.nanos[term.ordinal()].sum();
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (final Term term : Term.values()) {
+            total += getNanos(term);
+        }
+        return total;
+    }
+
+    // Behavior: returns the nanoseconds a call of the term took on average
+    public double getMeanNanos(final Term term) {
+        final long calls = getCalls(term);
+        return calls == 0 ? 0.0 : (double) getNanos(term) / calls;
+    }
+
+    public long getWhiteScore(final Term term) {
+        return this.whiteScores[term.ordinal()].sum();
+    }
+
+    public long getBlackScore(final Term term) {
+        return this.blackScores[term.ordinal()].sum();
+    }
+
+    // Behavior: returns what the term added to the scores from white's point of view, which for the breakdown of
+    //           a single evaluation is its share of the final score
+    public long getScore(final Term term) {
+        return getWhiteScore(term) - getBlackScore(term);
+    }
+
+    // Behavior: returns the sum of the terms' shares, the final score for the breakdown of a single evaluation
+    public long getScore() {
+        long score = 0;
+        for (final Term term : Term.values()) {
+            score += getScore(term);
+        }
+        return score;
+    }
+
+    // Behavior: returns how much the term scored for a side on average whatever its sign, a measure of how much
+    //           it weighs in the evaluation
+    public double getMeanAbsoluteScore(final Term term) {
+        final long calls = getCalls(term);
+        return calls == 0 ? 0.0 : (double) this.absoluteScores[term.ordinal()].sum() / calls;
+    }
+
+    // Behavior: sets every count back to zero. Records added while it runs may be partly kept.
+    public void reset() {
+        this.evaluations.reset();
+        for (int i = 0; i < NUM_TERMS; i++) {
+            this.calls[i].reset();
+            this.nanos[i].reset();
+            this.whiteScores[i].reset();
+            this.blackScores[i].reset();
+            this.absoluteScores[i].reset();
+        }
+    }
+
+    void addEvaluation() {
+        this.evaluations.increment();
+    }
+
+    // Behavior: records one computation of the term for the side, started at the given System.nanoTime
+    // Return: the System.nanoTime after recording, the start of the next term
+    long record(final Term term,
+                final Alliance alliance,
+                final int score,
+                final long start) {
+        final int index = term.ordinal();
+        this.nanos[index].add(System.nanoTime() - start);
+        this.calls[index].increment();
+        (alliance.isWhite() ? this.whiteScores : this.blackScores)[index].add(score);
+        this.absoluteScores[index].add(Math.abs(score));
+        return System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d evaluations, %d ms in the terms%n", getEvaluations(), getTotalNanos() / 1_000_000L));
+        for (final Term term : Term.values()) {
+            builder.append(String.format("%-17s calls = %d, time = %d ms (%.0f ns/call), score = %d, mean |score| = %.1f%n",
+                    term, getCalls(term), getNanos(term) / 1_000_000L, getMeanNanos(term), getScore(term),
+                    getMeanAbsoluteScore(term)));
+        }
+        return builder.toString();
+    }
+
+    private static LongAdder[] newAdders() {
+        final LongAdder[] adders = new LongAdder[NUM_TERMS];
+        for (int i = 0; i < NUM_TERMS; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
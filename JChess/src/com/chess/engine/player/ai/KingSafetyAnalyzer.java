@@ -1,5 +1,6 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.pieces.Piece;
@@ -7,13 +8,18 @@ import com.chess.engine.player.Player;
 import com.google.common.collect.ImmutableList;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 public final class KingSafetyAnalyzer {
 
     private static final KingSafetyAnalyzer INSTANCE = new KingSafetyAnalyzer();
     private static final List<boolean[]> COLUMNS = initColumns();
+    private static final byte[][] DISTANCE = initDistances();
+    private static final long[][] KING_ZONES = initKingZones();
+    // indexed by PieceType ordinal: pawn, knight, bishop, rook, queen, king
+    private static final int[] KING_ZONE_ATTACK_WEIGHTS = {10, 20, 20, 40, 80, 0};
+    // the share of the attack weight that counts, in percent, by the number of attacking pieces
+    private static final int[] ATTACKER_SCALE = {0, 0, 50, 75, 88, 94, 97, 99};
 
     private KingSafetyAnalyzer() {
     }
@@ -35,93 +41,80 @@ public final class KingSafetyAnalyzer {
         return ImmutableList.copyOf(columns);
     }
 
-    public KingDistance calculateKingTropism(final Player player) {
-        final int playerKingSquare = player.getPlayerKing().getPiecePosition();
-        final Collection<Move> enemyMoves = player.getOpponent().getLegalMoves();
+    // Return: the king tropism term, a hundredth of the value of the enemy piece that can move closest to the
+    //         player's king times its Chebyshev distance, or 0 if the enemy cannot move
+    public int kingTropism(final Player player) {
+        final byte[] kingDistances = DISTANCE[player.getPlayerKing().getPiecePosition()];
         Piece closestPiece = null;
         int closestDistance = Integer.MAX_VALUE;
-        for(final Move move : enemyMoves) {
-            final int currentDistance = calculateChebyshevDistance(playerKingSquare, move.getDestinationCoordinate());
+        for(final Move move : player.getOpponent().getLegalMoves()) {
+            final int currentDistance = kingDistances[move.getDestinationCoordinate()];
             if(currentDistance < closestDistance) {
                 closestDistance = currentDistance;
                 closestPiece = move.getMovedPiece();
             }
         }
-        return new KingDistance(closestPiece, closestDistance);
+        return closestPiece == null ? 0 : (closestPiece.getPieceValue() / 100) * closestDistance;
     }
 
-    private static int calculateChebyshevDistance(final int kingTileId,
-                                                  final int enemyAttackTileId) {
-        final int rankDistance = Math.abs(getRank(enemyAttackTileId) - getRank(kingTileId));
-        final int fileDistance = Math.abs(getFile(enemyAttackTileId) - getFile(kingTileId));
-        return Math.max(rankDistance, fileDistance);
+    // Return: the penalty for the enemy pieces attacking the alliance's king zone. Every attacked zone square adds
+    //         the attacker's weight, and the sum counts for more the more pieces take part: a lone attacker is
+    //         ignored, it cannot mate alone.
+    public int kingZoneSafety(final AttackSets sets,
+                              final Alliance alliance) {
+        final int attackers = Math.min(sets.getKingZoneAttackers(alliance), ATTACKER_SCALE.length - 1);
+        return -(sets.getKingZoneAttackWeight(alliance) * ATTACKER_SCALE[attackers]) / 100;
     }
 
-    private static int getFile(final int coordinate) {
-        if(BoardUtils.FIRST_COLUMN[coordinate]) {
-            return 1;
-        } else if(BoardUtils.SECOND_COLUMN[coordinate]) {
-            return 2;
-        } else if(BoardUtils.THIRD_COLUMN[coordinate]) {
-            return 3;
-        } else if(BoardUtils.FOURTH_COLUMN[coordinate]) {
-            return 4;
-        } else if(BoardUtils.FIFTH_COLUMN[coordinate]) {
-            return 5;
-        } else if(BoardUtils.SIXTH_COLUMN[coordinate]) {
-            return 6;
-        } else if(BoardUtils.SEVENTH_COLUMN[coordinate]) {
-            return 7;
-        } else if(BoardUtils.EIGHTH_COLUMN[coordinate]) {
-            return 8;
-        }
-        throw new RuntimeException("should not reach here!");
+    // Return: the squares around a king of the alliance on the square, with the three squares one step further
+    //         towards the enemy where the attack comes from
+    public static long kingZone(final Alliance alliance,
+                                final int square) {
+        return KING_ZONES[alliance.isWhite() ? 0 : 1][square];
     }
 
-    private static int getRank(final int coordinate) {
-        if(BoardUtils.EIGHTH_RANK[coordinate]) {
-            return 1;
-        } else if(BoardUtils.SEVENTH_RANK[coordinate]) {
-            return 2;
-        } else if(BoardUtils.SIXTH_RANK[coordinate]) {
-            return 3;
-        } else if(BoardUtils.FIFTH_RANK[coordinate]) {
-            return 4;
-        } else if(BoardUtils.FOURTH_RANK[coordinate]) {
-            return 5;
-        } else if(BoardUtils.THIRD_RANK[coordinate]) {
-            return 6;
-        } else if(BoardUtils.SECOND_RANK[coordinate]) {
-            return 7;
-        } else if(BoardUtils.FIRST_RANK[coordinate]) {
-            return 8;
-        }
-        throw new RuntimeException("should not reach here!");
+    // Return: the weight of one king zone square attacked by a piece of the type
+    static int kingZoneAttackWeight(final Piece.PieceType pieceType) {
+        return KING_ZONE_ATTACK_WEIGHTS[pieceType.ordinal()];
     }
 
-    static class KingDistance {
-
-        final Piece enemyPiece;
-        final int distance;
-
-        KingDistance(final Piece enemyDistance,
-                     final int distance) {
-            this.enemyPiece = enemyDistance;
-            this.distance = distance;
-        }
-
-        public Piece getEnemyPiece() {
-            return enemyPiece;
-        }
+    // Return: the Chebyshev distance between the squares, the number of king steps from one to the other
+    public static int distance(final int from,
+                               final int to) {
+        return DISTANCE[from][to];
+    }
 
-        public int getDistance() {
-            return distance;
+    private static byte[][] initDistances() {
+        final byte[][] distances = new byte[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (int to = 0; to < BoardUtils.NUM_TILES; to++) {
+                final int rankDistance = Math.abs(from / BoardUtils.NUM_TILES_PER_ROW - to / BoardUtils.NUM_TILES_PER_ROW);
+                final int fileDistance = Math.abs(from % BoardUtils.NUM_TILES_PER_ROW - to % BoardUtils.NUM_TILES_PER_ROW);
+                distances[from][to] = (byte) Math.max(rankDistance, fileDistance);
+            }
         }
+        return distances;
+    }
 
-        public int tropismScore() {
-            return (enemyPiece.getPieceValue()/10) * distance;
+    private static long[][] initKingZones() {
+        final long[][] zones = new long[2][BoardUtils.NUM_TILES];
+        for (int king = 0; king < BoardUtils.NUM_TILES; king++) {
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                final int rowOffset = square / BoardUtils.NUM_TILES_PER_ROW - king / BoardUtils.NUM_TILES_PER_ROW;
+                final int columnDistance = Math.abs(square % BoardUtils.NUM_TILES_PER_ROW - king % BoardUtils.NUM_TILES_PER_ROW);
+                if (columnDistance > 1) {
+                    continue;
+                }
+                // white looks towards the low rows, black towards the high rows
+                if (rowOffset >= -2 && rowOffset <= 1) {
+                    zones[0][king] |= 1L << square;
+                }
+                if (rowOffset >= -1 && rowOffset <= 2) {
+                    zones[1][king] |= 1L << square;
+                }
+            }
         }
-
+        return zones;
     }
 
 }
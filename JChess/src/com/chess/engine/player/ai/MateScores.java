@@ -0,0 +1,67 @@
+package com.chess.engine.player.ai;
+
+// This class defines how the search scores mates. A side to move that is checkmated scores -(MATE - ply),
+// ply being its distance from the root, so a shorter mate always scores higher than a longer one and every
+// mate scores beyond any heuristic evaluation. Stalemate scores DRAW.
+public final class MateScores {
+
+    public static final int MATE = 1_000_000;
+    public static final int DRAW = 0;
+    private static final int MAX_MATE_PLY = 1000;
+    private static final int MATE_BOUND = MATE - MAX_MATE_PLY;
+
+    private MateScores() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static boolean isMate(final int score) {
+        return Math.abs(score) >= MATE_BOUND;
+    }
+
+    // Return: the number of moves to mate, positive if the side to move mates and negative if it gets mated
+    public static int mateIn(final int score) {
+        if (!isMate(score)) {
+            throw new IllegalArgumentException("not a mate score: " + score);
+        }
+        final int plies = MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    // Return: the number of plies from the root to the mated position
+    static int matePlies(final int score) {
+        return MATE - Math.abs(score);
+    }
+
+    // Behavior: mate scores are stored relative to the node instead of the root, so that an entry found again
+    //           at another distance from the root still yields the right mate distance
+    static int toTranspositionTable(final int score,
+                                    final int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    static int fromTranspositionTable(final int score,
+                                      final int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        if (score <= -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Return: "mate in N" / "mated in N" for mate scores, the score itself otherwise
+    public static String format(final int score) {
+        if (!isMate(score)) {
+            return String.valueOf(score);
+        }
+        final int mateIn = mateIn(score);
+        return mateIn > 0 ? "mate in " + mateIn : "mated in " + -mateIn;
+    }
+}
@@ -15,12 +15,19 @@ public class MiniMax implements MoveStrategy {
     private long executionTime;
     private FreqTableRow[] freqTable;
     private int freqTableIndex;
+    private boolean consoleLogging;
 
 
     public MiniMax(final int searchDepth) {
         this.boardEvaluator = StandardBoardEvaluator.get();
         this.searchDepth = searchDepth;
         this.boardsEvaluated = 0;
+        this.consoleLogging = false;
+    }
+
+    // Behavior: turns the per move progress lines on the console on or off (off by default)
+    public void setConsoleLogging(final boolean consoleLogging) {
+        this.consoleLogging = consoleLogging;
     }
 
     @Override
@@ -44,7 +51,9 @@ public class MiniMax implements MoveStrategy {
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
 
-        System.out.println(board.currentPlayer() + "THINKING with depth = " + this.searchDepth);
+        if (this.consoleLogging) {
+            System.out.println(board.currentPlayer() + "THINKING with depth = " + this.searchDepth);
+        }
         this.freqTable = new FreqTableRow[board.currentPlayer().getLegalMoves().size()];
         this.freqTableIndex = 0;
         int moveCounter = 1;
@@ -58,8 +67,10 @@ public class MiniMax implements MoveStrategy {
                 currentValue = board.currentPlayer().getAlliance().isWhite() ?
                         min(moveTransition.getTransitionBoard(), this.searchDepth - 1) :
                         max(moveTransition.getTransitionBoard(), this.searchDepth - 1);
-                System.out.println("\t" + toString() + " analyzing move (" +moveCounter + "/" +numMoves+ ") " + move +
-                        " scores " + currentValue + " " +this.freqTable[this.freqTableIndex]);
+                if (this.consoleLogging) {
+                    System.out.println("\t" + toString() + " analyzing move (" +moveCounter + "/" +numMoves+ ") " + move +
+                            " scores " + currentValue + " " +this.freqTable[this.freqTableIndex]);
+                }
                 this.freqTableIndex ++;
                 if (board.currentPlayer().getAlliance().isWhite() && currentValue >= highestSeenValue) {
                     highestSeenValue = currentValue;
@@ -68,13 +79,16 @@ public class MiniMax implements MoveStrategy {
                     lowestSeenValue = currentValue;
                     bestMove = move;
                 }
-            } else {
+            } else if (this.consoleLogging) {
                 System.out.println("\t" + toString() + " can't execute move (" +moveCounter+ "/" +numMoves+ ") " + move);
             }
             moveCounter++;
         }
 
         this.executionTime = System.currentTimeMillis() - startTime;
+        if (!this.consoleLogging) {
+            return bestMove;
+        }
         System.out.printf("%s SELECTS %s [#boards = %d time taken = %d ms, rate = %.1f\n", board.currentPlayer(),
                 bestMove, this.boardsEvaluated, this.executionTime, (1000 * ((double)this.boardsEvaluated/this.executionTime)));
         long total = 0;
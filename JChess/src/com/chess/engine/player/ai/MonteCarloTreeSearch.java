@@ -0,0 +1,284 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// This class is a Monte Carlo tree search. Each iteration walks down the tree by UCT, expands the leaf it
+// reaches and scores it with the board evaluator instead of a random playout, squashing the score into a win
+// probability for the side to move. The move played is the root move visited most.
+// Several threads grow one shared tree. A thread counts its visit on every node on the way down before the
+// score is known, which reads as a lost playout to the others until the score is added on the way back up:
+// this virtual loss steers the threads apart without any lock on the way down.
+// Nodes hold squares instead of boards, the boards on the way down are rebuilt from the root.
+public class MonteCarloTreeSearch implements MoveStrategy {
+
+    public static final int DEFAULT_ITERATIONS = 20_000;
+    private static final double EXPLORATION = Math.sqrt(2);
+    // an evaluation of this many units is about a 73% chance to win
+    private static final double EVALUATION_SCALE = 400;
+    private static final double VALUE_UNIT = 1_000_000;
+    private static final int ITERATIONS_BETWEEN_UPDATES = 256;
+
+    private final int iterations;
+    private final int parallelism;
+    private final BoardEvaluator evaluator;
+    private final LongAdder boardsEvaluated;
+
+    public MonteCarloTreeSearch() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public MonteCarloTreeSearch(final int iterations) {
+        this(iterations, 1);
+    }
+
+    public MonteCarloTreeSearch(final int iterations,
+                                final int parallelism) {
+        this(iterations, parallelism, StandardBoardEvaluator.get());
+    }
+
+    // Parameter:
+    //      iterations: the number of iterations over all threads, a time limit may stop the search earlier
+    //      parallelism: the number of threads growing the tree
+    public MonteCarloTreeSearch(final int iterations,
+                                final int parallelism,
+                                final BoardEvaluator evaluator) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be at least 1, was " + iterations);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        }
+        this.iterations = iterations;
+        this.parallelism = parallelism;
+        this.evaluator = evaluator;
+        this.boardsEvaluated = new LongAdder();
+    }
+
+    @Override
+    public String toString() {
+        return "MCTS";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated.sum();
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, SearchLimits.infinite());
+    }
+
+    // Behavior: runs iterations until the iteration count, the soft deadline or a stop request, whichever
+    //           comes first. The controller's best move follows the most visited root move as the tree grows.
+    @Override
+    public Move execute(final Board board,
+                        final SearchController controller) {
+        controller.start();
+        final Search search = new Search(board, controller);
+        if (this.parallelism == 1) {
+            search.run();
+        } else {
+            final ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+            try {
+                final List<Future<?>> workers = new ArrayList<>();
+                for (int i = 0; i < this.parallelism; i++) {
+                    workers.add(executor.submit(search::run));
+                }
+                for (final Future<?> worker : workers) {
+                    worker.get();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                controller.stop();
+            } catch (final ExecutionException e) {
+                throw new RuntimeException("search worker failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        final Move bestMove = search.bestMove();
+        if (bestMove != Move.MoveFactory.getNullMove()) {
+            controller.updateBestMove(bestMove);
+        }
+        return bestMove;
+    }
+
+    // Return: the probability that the side to move wins, from the evaluator's score of the board
+    private double value(final Board board) {
+        this.boardsEvaluated.increment();
+        final int score = this.evaluator.evaluate(board, 0);
+        final int sideToMoveScore = board.currentPlayer().getAlliance().isWhite() ? score : -score;
+        return 1.0 / (1.0 + Math.exp(-sideToMoveScore / EVALUATION_SCALE));
+    }
+
+    private static Move findMove(final Board board,
+                                 final Node node) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() == node.from && move.getDestinationCoordinate() == node.to) {
+                return move;
+            }
+        }
+        throw new RuntimeException("no legal move from " + node.from + " to " + node.to);
+    }
+
+    // This class is a node of the shared tree. Its value is the sum of the playout results from the point of
+    // view of the side that moved into it, in millionths, and is read together with its visit count.
+    private static final class Node {
+
+        final byte from;
+        final byte to;
+        final AtomicInteger visits;
+        final AtomicLong valueSum;
+        volatile Node[] children;
+        // the outcome of a position where the game is over, or NaN while it is still going or not yet looked at
+        volatile double terminalValue;
+
+        Node(final int from,
+             final int to) {
+            this.from = (byte) from;
+            this.to = (byte) to;
+            this.visits = new AtomicInteger();
+            this.valueSum = new AtomicLong();
+            this.terminalValue = Double.NaN;
+        }
+
+        // Behavior: picks the child with the highest upper confidence bound, any unvisited child first
+        Node select() {
+            final Node[] candidates = this.children;
+            final double logVisits = Math.log(Math.max(1, this.visits.get()));
+            Node best = null;
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (final Node child : candidates) {
+                final int childVisits = child.visits.get();
+                if (childVisits == 0) {
+                    return child;
+                }
+                final double bound = child.valueSum.get() / VALUE_UNIT / childVisits +
+                        EXPLORATION * Math.sqrt(logVisits / childVisits);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        Node mostVisitedChild() {
+            Node best = null;
+            for (final Node child : this.children) {
+                if (best == null || child.visits.get() > best.visits.get()) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    // This class holds the tree of one call to execute and is run by every thread of the search
+    private final class Search {
+
+        private final Board root;
+        private final SearchController controller;
+        private final Node rootNode;
+        private final AtomicInteger iterationsStarted;
+
+        Search(final Board root,
+               final SearchController controller) {
+            this.root = root;
+            this.controller = controller;
+            this.rootNode = new Node(-1, -1);
+            this.iterationsStarted = new AtomicInteger();
+        }
+
+        void run() {
+            int iteration;
+            while ((iteration = this.iterationsStarted.getAndIncrement()) < iterations &&
+                    !this.controller.checkpoint() && !this.controller.isSoftDeadlineReached()) {
+                iterate();
+                if (iteration % ITERATIONS_BETWEEN_UPDATES == 0) {
+                    final Move best = bestMove();
+                    if (best != Move.MoveFactory.getNullMove()) {
+                        this.controller.updateBestMove(best);
+                    }
+                }
+            }
+        }
+
+        // Behavior: one selection, expansion, evaluation and backup from the root
+        private void iterate() {
+            final List<Node> path = new ArrayList<>();
+            Node node = this.rootNode;
+            Board board = this.root;
+            node.visits.incrementAndGet();
+            path.add(node);
+            while (node.children != null && node.children.length > 0) {
+                node = node.select();
+                board = findMove(board, node).execute();
+                node.visits.incrementAndGet();
+                path.add(node);
+            }
+            // the value of a position for its side to move, each node above is scored for the side that moved into it
+            double value = score(node, board);
+            for (int i = path.size() - 1; i >= 0; i--) {
+                value = 1.0 - value;
+                path.get(i).valueSum.addAndGet(Math.round(value * VALUE_UNIT));
+            }
+        }
+
+        // Return: the win probability of the side to move at the leaf, expanding the leaf if the game goes on
+        private double score(final Node node,
+                             final Board board) {
+            final double terminalValue = node.terminalValue;
+            if (!Double.isNaN(terminalValue)) {
+                return terminalValue;
+            }
+            if (board.currentPlayer().isInCheckMate()) {
+                node.terminalValue = 0.0;
+                return 0.0;
+            }
+            if (board.currentPlayer().isInStaleMate()) {
+                node.terminalValue = 0.5;
+                return 0.5;
+            }
+            expand(node, board);
+            return value(board);
+        }
+
+        private void expand(final Node node,
+                            final Board board) {
+            synchronized (node) {
+                if (node.children != null) {
+                    return;
+                }
+                final List<Node> children = new ArrayList<>();
+                for (final Move move : board.currentPlayer().getLegalMoves()) {
+                    final MoveTransition transition = board.currentPlayer().makeMove(move);
+                    if (transition.getMoveStatus().isDone()) {
+                        children.add(new Node(move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+                    }
+                }
+                node.children = children.toArray(new Node[0]);
+            }
+        }
+
+        Move bestMove() {
+            if (this.rootNode.children == null || this.rootNode.children.length == 0) {
+                return Move.MoveFactory.getNullMove();
+            }
+            return findMove(this.root, this.rootNode.mostVisitedChild());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// This class hands out the moves of a node one at a time, in stages: the transposition table move, captures
+// that do not lose material by static exchange, the killer moves, the remaining quiet moves by history score
+// and last the losing captures. A stage is only built once the stage before it has run out, and each stage is
+// ordered by picking its best remaining move, so a node that cuts off early never classifies or sorts the
+// moves it does not reach. A picker is owned by a SearchStack frame and reset for every node at its ply, so its
+// buffers are allocated once per search thread.
+public final class MovePicker {
+
+    private enum Stage {
+        TT_MOVE,
+        SPLIT_CAPTURES,
+        GOOD_CAPTURES,
+        KILLERS,
+        QUIETS,
+        BAD_CAPTURES,
+        DONE
+    }
+
+    private static final int CASTLING_SCORE = Integer.MAX_VALUE;
+    // no chess position has more legal moves than this
+    private static final int MAX_MOVES = 256;
+
+    private final MoveList goodCaptures;
+    private final MoveList badCaptures;
+    private final MoveList quiets;
+    private final Move[] killerMoves;
+    private final boolean[] exchangeRemoved;
+    private final int[] exchangeGain;
+    private Collection<Move> legalMoves;
+    private Move ttMove;
+    private Move[] killers;
+    private int[] historyScores;
+    private boolean skipQuiets;
+    private Stage stage;
+    private int killerIndex;
+    private int quietCount;
+    private int skippedQuiets;
+
+    public MovePicker() {
+        this.goodCaptures = new MoveList(MAX_MOVES);
+        this.badCaptures = new MoveList(MAX_MOVES);
+        this.quiets = new MoveList(MAX_MOVES);
+        this.killerMoves = new Move[2];
+        this.exchangeRemoved = new boolean[BoardUtils.NUM_TILES];
+        this.exchangeGain = new int[StaticExchange.MAX_EXCHANGES];
+        this.stage = Stage.DONE;
+    }
+
+    // Behavior: starts handing out the moves of a new node
+    // Parameter:
+    //      ttMove: the legal transposition table move of the node, or null
+    //      killers: the quiet moves that last caused a cutoff at this ply, matched on their squares
+    //      historyScores: the quiet move history of the side to move, indexed by origin * 64 + destination
+    //      skipQuiets: true to leave out every quiet move, as futility pruning does
+    public void reset(final Board board,
+                      final Move ttMove,
+                      final Move[] killers,
+                      final int[] historyScores,
+                      final boolean skipQuiets) {
+        this.legalMoves = board.currentPlayer().getLegalMoves();
+        this.ttMove = ttMove;
+        this.killers = killers;
+        this.historyScores = historyScores;
+        this.skipQuiets = skipQuiets;
+        this.stage = Stage.TT_MOVE;
+        this.goodCaptures.clear();
+        this.badCaptures.clear();
+        this.quiets.clear();
+        this.killerIndex = 0;
+        this.quietCount = 0;
+        this.skippedQuiets = 0;
+    }
+
+    static boolean isQuiet(final Move move) {
+        return !move.isAttack() && !(move instanceof Move.PawnPromotion);
+    }
+
+    static int historyIndex(final Move move) {
+        return move.getCurrentCoordinate() * BoardUtils.NUM_TILES + move.getDestinationCoordinate();
+    }
+
+    // Return: the number of quiet moves left out because of skipQuiets
+    public int getSkippedQuiets() {
+        return this.skippedQuiets;
+    }
+
+    // Return: the next move to search, or null once every move has been handed out
+    public Move next() {
+        while (true) {
+            switch (this.stage) {
+                case TT_MOVE:
+                    this.stage = Stage.SPLIT_CAPTURES;
+                    if (this.ttMove != null && !(this.skipQuiets && isQuiet(this.ttMove))) {
+                        return this.ttMove;
+                    }
+                    break;
+                case SPLIT_CAPTURES:
+                    splitCaptures();
+                    this.stage = Stage.GOOD_CAPTURES;
+                    break;
+                case GOOD_CAPTURES:
+                    if (!this.goodCaptures.isEmpty()) {
+                        return this.goodCaptures.pickBest();
+                    }
+                    this.stage = Stage.KILLERS;
+                    if (this.skipQuiets) {
+                        this.skippedQuiets = this.quietCount;
+                        this.stage = Stage.BAD_CAPTURES;
+                    } else {
+                        resolveKillers();
+                    }
+                    break;
+                case KILLERS:
+                    if (this.killerIndex < this.killerMoves.length && this.killerMoves[this.killerIndex] != null) {
+                        return this.killerMoves[this.killerIndex++];
+                    }
+                    this.stage = Stage.QUIETS;
+                    scoreQuiets();
+                    break;
+                case QUIETS:
+                    if (!this.quiets.isEmpty()) {
+                        return this.quiets.pickBest();
+                    }
+                    this.stage = Stage.BAD_CAPTURES;
+                    break;
+                case BAD_CAPTURES:
+                    if (!this.badCaptures.isEmpty()) {
+                        return this.badCaptures.pickBest();
+                    }
+                    this.stage = Stage.DONE;
+                    break;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    // Behavior: sorts the captures and promotions into the good and bad stages. Captures of a piece worth at
+    //           least the capturing one are good without running the static exchange.
+    private void splitCaptures() {
+        for (final Move move : this.legalMoves) {
+            if (isQuiet(move)) {
+                this.quietCount++;
+                continue;
+            }
+            if (move == this.ttMove) {
+                continue;
+            }
+            if (!move.isAttack() ||
+                    move.getAttackedPiece().getPieceValue() >= move.getMovedPiece().getPieceValue()) {
+                this.goodCaptures.add(move, BoardUtils.mvvlva(move));
+                continue;
+            }
+            final int exchange = StaticExchange.evaluate(move, this.exchangeRemoved, this.exchangeGain);
+            if (exchange >= 0) {
+                this.goodCaptures.add(move, BoardUtils.mvvlva(move));
+            } else {
+                this.badCaptures.add(move, exchange);
+            }
+        }
+    }
+
+    private void resolveKillers() {
+        int count = 0;
+        for (final Move killer : this.killers) {
+            if (killer == null) {
+                continue;
+            }
+            for (final Move move : this.legalMoves) {
+                if (move != this.ttMove && isQuiet(move) &&
+                        move.getCurrentCoordinate() == killer.getCurrentCoordinate() &&
+                        move.getDestinationCoordinate() == killer.getDestinationCoordinate()) {
+                    this.killerMoves[count++] = move;
+                    break;
+                }
+            }
+        }
+        while (count < this.killerMoves.length) {
+            this.killerMoves[count++] = null;
+        }
+    }
+
+    private void scoreQuiets() {
+        for (final Move move : this.legalMoves) {
+            if (isQuiet(move) && move != this.ttMove && !isKiller(move)) {
+                this.quiets.add(move, move.isCastlingMove() ? CASTLING_SCORE : this.historyScores[historyIndex(move)]);
+            }
+        }
+    }
+
+    private boolean isKiller(final Move move) {
+        for (final Move killer : this.killerMoves) {
+            if (killer == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // This class is a stage's moves with their scores, handed out best first by selection
+    private static final class MoveList {
+
+        private final Move[] moves;
+        private final int[] scores;
+        private int size;
+
+        MoveList(final int capacity) {
+            this.moves = new Move[capacity];
+            this.scores = new int[capacity];
+            this.size = 0;
+        }
+
+        void add(final Move move,
+                 final int score) {
+            this.moves[this.size] = move;
+            this.scores[this.size] = score;
+            this.size++;
+        }
+
+        void clear() {
+            Arrays.fill(this.moves, 0, this.size, null);
+            this.size = 0;
+        }
+
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        // Behavior: removes and returns the highest scored move, the first one added on ties
+        Move pickBest() {
+            int best = 0;
+            for (int i = 1; i < this.size; i++) {
+                if (this.scores[i] > this.scores[best]) {
+                    best = i;
+                }
+            }
+            final Move move = this.moves[best];
+            this.size--;
+            System.arraycopy(this.moves, best + 1, this.moves, best, this.size - best);
+            System.arraycopy(this.scores, best + 1, this.scores, best, this.size - best);
+            return move;
+        }
+    }
+}
@@ -8,4 +8,16 @@ public interface MoveStrategy {
     long getNumBoardsEvaluated();
 
     Move execute(Board board);
+
+    // Behavior: searches within the given limits. Strategies that cannot honour limits run their normal search.
+    default Move execute(final Board board,
+                         final SearchLimits limits) {
+        return execute(board, new SearchController(limits));
+    }
+
+    // Behavior: searches under the control of the given controller, which may be stopped from another thread
+    default Move execute(final Board board,
+                         final SearchController controller) {
+        return execute(board);
+    }
 }
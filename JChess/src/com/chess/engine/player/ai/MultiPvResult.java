@@ -0,0 +1,92 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// This class is the outcome of a multi-PV search: the best root moves ranked from best to worst, each with
+// its score from the side to move's point of view and its principal variation. All lines come from the same
+// iteration, so their scores can be compared with each other.
+public final class MultiPvResult {
+
+    private final SearchResult bestResult;
+    private final List<Line> lines;
+
+    MultiPvResult(final SearchResult bestResult,
+                  final List<Line> lines) {
+        this.bestResult = bestResult;
+        this.lines = ImmutableList.copyOf(lines);
+    }
+
+    // Return: the result of the best line, as a single line search would have returned it
+    public SearchResult getBestResult() {
+        return this.bestResult;
+    }
+
+    // Return: the lines ranked from best to worst, fewer than requested if there are fewer legal moves
+    public List<Line> getLines() {
+        return this.lines;
+    }
+
+    // Return: the line at the given rank, 0 being the best
+    public Line getLine(final int rank) {
+        return this.lines.get(rank);
+    }
+
+    public int getDepth() {
+        return this.bestResult.getDepth();
+    }
+
+    public SearchStats getStats() {
+        return this.bestResult.getStats();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.lines.size(); i++) {
+            builder.append(i + 1).append(". ").append(this.lines.get(i)).append("\n");
+        }
+        return builder.append("depth: ").append(getDepth()).append(" ").append(getStats()).toString();
+    }
+
+    // This class is one ranked line: a root move, its score and the best continuation found after it
+    public static final class Line {
+
+        private final Move move;
+        private final int score;
+        private final List<Move> principalVariation;
+
+        Line(final Move move,
+             final int score,
+             final List<Move> principalVariation) {
+            this.move = move;
+            this.score = score;
+            this.principalVariation = ImmutableList.copyOf(principalVariation);
+        }
+
+        public Move getMove() {
+            return this.move;
+        }
+
+        public int getScore() {
+            return this.score;
+        }
+
+        public boolean isMate() {
+            return MateScores.isMate(this.score);
+        }
+
+        // Return: the root move followed by its best continuation
+        public List<Move> getPrincipalVariation() {
+            return this.principalVariation;
+        }
+
+        @Override
+        public String toString() {
+            return this.move + " [" + (isMate() ? MateScores.format(this.score) : "score: " + this.score) + "] " +
+                    this.principalVariation;
+        }
+    }
+}
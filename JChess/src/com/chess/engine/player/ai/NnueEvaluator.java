@@ -0,0 +1,144 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+// This class scores boards with an NnueNetwork. The accumulators of a board are its parent's with the weight
+// columns of the pieces on the squares the move changed swapped, a few hundred additions instead of one
+// column per piece. Boards are never unmade, so the accumulators are kept in a fixed size table keyed by the
+// board's Zobrist key: a board finds its parent's there, or builds it the same way, walking up the moves to a
+// board already in the table or to one too far away, which is summed from scratch.
+// The table is shared by all search threads without locks: a slot holds an immutable entry, two threads
+// writing it at once both leave a complete one.
+public final class NnueEvaluator implements BoardEvaluator {
+
+    public static final int DEFAULT_NUM_ENTRIES = 1 << 14;
+    // a board this many moves away from one in the table is summed from scratch instead
+    private static final int MAX_UPDATE_DISTANCE = 16;
+
+    private final NnueNetwork network;
+    private final Accumulators[] table;
+    private final int mask;
+    private final LongAdder refreshes;
+    private final LongAdder updates;
+
+    public NnueEvaluator(final NnueNetwork network) {
+        this(network, DEFAULT_NUM_ENTRIES);
+    }
+
+    // Parameter:
+    //      network: the weights scoring the boards
+    //      numEntries: the number of boards whose accumulators are kept, a power of two
+    public NnueEvaluator(final NnueNetwork network,
+                         final int numEntries) {
+        if (numEntries < 1 || Integer.bitCount(numEntries) != 1) {
+            throw new IllegalArgumentException("number of entries must be a power of two, was " + numEntries);
+        }
+        this.network = network;
+        this.table = new Accumulators[numEntries];
+        this.mask = numEntries - 1;
+        this.refreshes = new LongAdder();
+        this.updates = new LongAdder();
+    }
+
+    // Return: an evaluator for the network file, see NnueNetwork.load for its format
+    public static NnueEvaluator load(final Path path) throws IOException {
+        return new NnueEvaluator(NnueNetwork.load(path));
+    }
+
+    // Return: the network's score of the board from white's point of view. The depth is not used, the search
+    //         scores mates itself.
+    @Override
+    public int evaluate(final Board board,
+                        final int depth) {
+        final Accumulators accumulators = accumulators(board, 0);
+        final boolean whiteToMove = board.currentPlayer().getAlliance().isWhite();
+        return whiteToMove ? this.network.output(accumulators.white, accumulators.black) :
+                -this.network.output(accumulators.black, accumulators.white);
+    }
+
+    public NnueNetwork getNetwork() {
+        return this.network;
+    }
+
+    // Return: the number of boards whose accumulators were summed from scratch
+    public long getRefreshes() {
+        return this.refreshes.sum();
+    }
+
+    // Return: the number of boards whose accumulators were updated from their parent's
+    public long getUpdates() {
+        return this.updates.sum();
+    }
+
+    private Accumulators accumulators(final Board board,
+                                      final int distance) {
+        final long key = board.getZobristHash();
+        final int index = (int) key & this.mask;
+        final Accumulators cached = this.table[index];
+        if (cached != null && cached.key == key) {
+            return cached;
+        }
+        final Board parent = board.getTransitionMove().getBoard();
+        final Accumulators accumulators = parent != null && distance < MAX_UPDATE_DISTANCE ?
+                update(accumulators(parent, distance + 1), parent, board) : refresh(board);
+        this.table[index] = accumulators;
+        return accumulators;
+    }
+
+    private Accumulators refresh(final Board board) {
+        this.refreshes.increment();
+        final short[] white = new short[this.network.getHiddenSize()];
+        final short[] black = new short[this.network.getHiddenSize()];
+        this.network.refresh(white, board, Alliance.WHITE);
+        this.network.refresh(black, board, Alliance.BLACK);
+        return new Accumulators(board.getZobristHash(), white, black);
+    }
+
+    private Accumulators update(final Accumulators parentAccumulators,
+                                final Board parent,
+                                final Board board) {
+        this.updates.increment();
+        final short[] white = parentAccumulators.white.clone();
+        final short[] black = parentAccumulators.black.clone();
+        for (final int square : Board.changedSquares(board.getTransitionMove())) {
+            final Piece removed = parent.getPiece(square);
+            if (removed != null) {
+                this.network.subtractFeature(white, NnueNetwork.featureIndex(removed, Alliance.WHITE));
+                this.network.subtractFeature(black, NnueNetwork.featureIndex(removed, Alliance.BLACK));
+            }
+            final Piece added = board.getPiece(square);
+            if (added != null) {
+                this.network.addFeature(white, NnueNetwork.featureIndex(added, Alliance.WHITE));
+                this.network.addFeature(black, NnueNetwork.featureIndex(added, Alliance.BLACK));
+            }
+        }
+        return new Accumulators(board.getZobristHash(), white, black);
+    }
+
+    @Override
+    public String toString() {
+        return "NNUE " + this.network;
+    }
+
+    // This class is the hidden layer sums of one board seen by each side, never changed once built
+    private static final class Accumulators {
+
+        final long key;
+        final short[] white;
+        final short[] black;
+
+        Accumulators(final long key,
+                     final short[] white,
+                     final short[] black) {
+            this.key = key;
+            this.white = white;
+            this.black = black;
+        }
+    }
+}
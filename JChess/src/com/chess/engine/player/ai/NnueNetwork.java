@@ -0,0 +1,175 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// This class is the weights of a small efficiently updatable network: 768 inputs, one per piece type, colour
+// and square, a hidden layer seen from each side's point of view and one output. The hidden layer is summed
+// into an accumulator that only changes by a few weight columns per move, see NnueEvaluator.
+// Each side sees the board from its own side: its pieces are the first 384 inputs and the board is flipped for
+// black, so both halves share the feature weights. The output reads the side to move's half first.
+// Weights are int16 quantized: the feature weights and biases by QA, the output weights by QB, the output bias
+// by QA * QB. The hidden activation is clipped to [0, QA].
+// The loops over the hidden layer are plain loops over short arrays that the JIT compiles to SIMD
+// instructions, the Vector API is still an incubator module and would need extra flags to build and run.
+public final class NnueNetwork {
+
+    public static final int NUM_FEATURES = 768;
+    public static final int QA = 255;
+    public static final int QB = 64;
+    // the output of the network times this, divided by QA * QB, is in centipawns
+    public static final int SCALE = 400;
+    private static final int FEATURES_PER_SIDE = 384;
+    // "MFNN" read as a little endian int
+    private static final int MAGIC = 0x4E4E464D;
+    private static final int HEADER_BYTES = 8;
+
+    private final int hiddenSize;
+    // the weights of feature f to the hidden neurons are featureWeights[f * hiddenSize ..< (f + 1) * hiddenSize]
+    private final short[] featureWeights;
+    private final short[] featureBiases;
+    // the side to move's half of the hidden layer first, then the other side's
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    // Parameter:
+    //      hiddenSize: the number of hidden neurons seen from each side
+    //      featureWeights: NUM_FEATURES * hiddenSize weights, feature by feature
+    //      featureBiases: hiddenSize biases
+    //      outputWeights: 2 * hiddenSize weights, the side to move's half first
+    //      outputBias: the output bias, quantized by QA * QB
+    public NnueNetwork(final int hiddenSize,
+                       final short[] featureWeights,
+                       final short[] featureBiases,
+                       final short[] outputWeights,
+                       final int outputBias) {
+        if (hiddenSize < 1) {
+            throw new IllegalArgumentException("hidden size must be at least 1, was " + hiddenSize);
+        }
+        if (featureWeights.length != NUM_FEATURES * hiddenSize || featureBiases.length != hiddenSize ||
+                outputWeights.length != 2 * hiddenSize) {
+            throw new IllegalArgumentException("weights do not match a hidden size of " + hiddenSize);
+        }
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights.clone();
+        this.featureBiases = featureBiases.clone();
+        this.outputWeights = outputWeights.clone();
+        this.outputBias = outputBias;
+    }
+
+    // Behavior: reads a network file: the magic "MFNN" and the hidden size as little endian int32, the feature
+    //           weights, feature biases and output weights as little endian int16, then the output bias as int32
+    public static NnueNetwork load(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException(path + " is not a network file");
+        }
+        final int hiddenSize = buffer.getInt();
+        if (hiddenSize < 1 || buffer.remaining() != fileSize(hiddenSize) - HEADER_BYTES) {
+            throw new IllegalArgumentException(path + " has " + buffer.remaining() +
+                    " bytes of weights, a hidden size of " + hiddenSize + " needs " + (fileSize(hiddenSize) - HEADER_BYTES));
+        }
+        final short[] featureWeights = readShorts(buffer, NUM_FEATURES * hiddenSize);
+        final short[] featureBiases = readShorts(buffer, hiddenSize);
+        final short[] outputWeights = readShorts(buffer, 2 * hiddenSize);
+        return new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, buffer.getInt());
+    }
+
+    // Behavior: writes the network in the format load reads
+    public void save(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(this.hiddenSize)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(this.hiddenSize);
+        buffer.asShortBuffer().put(this.featureWeights).put(this.featureBiases).put(this.outputWeights);
+        buffer.position(buffer.position() + 2 * (this.featureWeights.length + this.featureBiases.length +
+                this.outputWeights.length));
+        buffer.putInt(this.outputBias);
+        Files.write(path, buffer.array());
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    // Behavior: sets the accumulator to the biases plus the weights of every piece on the board, seen by the side
+    void refresh(final short[] accumulator,
+                 final Board board,
+                 final Alliance perspective) {
+        System.arraycopy(this.featureBiases, 0, accumulator, 0, this.hiddenSize);
+        for (final Piece piece : board.getWhitePieces()) {
+            addFeature(accumulator, featureIndex(piece, perspective));
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            addFeature(accumulator, featureIndex(piece, perspective));
+        }
+    }
+
+    void addFeature(final short[] accumulator,
+                    final int feature) {
+        final short[] weights = this.featureWeights;
+        final int offset = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    void subtractFeature(final short[] accumulator,
+                         final int feature) {
+        final short[] weights = this.featureWeights;
+        final int offset = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    // Return: the score in centipawns for the side to move
+    // Parameter:
+    //      us: the accumulator seen by the side to move
+    //      them: the accumulator seen by the other side
+    int output(final short[] us,
+               final short[] them) {
+        final short[] weights = this.outputWeights;
+        final int size = this.hiddenSize;
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += Math.min(Math.max(us[i], 0), QA) * weights[i];
+        }
+        for (int i = 0; i < size; i++) {
+            sum += Math.min(Math.max(them[i], 0), QA) * weights[size + i];
+        }
+        return (int) ((long) (sum + this.outputBias) * SCALE / (QA * QB));
+    }
+
+    // Return: the input of the piece seen by the side: the side's own pieces first, the board flipped for black
+    static int featureIndex(final Piece piece,
+                            final Alliance perspective) {
+        final boolean own = piece.getPieceAlliance() == perspective;
+        final int square = perspective.isWhite() ? piece.getPiecePosition() :
+                piece.getPiecePosition() ^ (BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW);
+        return (own ? 0 : FEATURES_PER_SIDE) + piece.getPieceType().ordinal() * BoardUtils.NUM_TILES + square;
+    }
+
+    private static long fileSize(final int hiddenSize) {
+        return HEADER_BYTES + 2L * (NUM_FEATURES + 3L) * hiddenSize + 4;
+    }
+
+    private static short[] readShorts(final ByteBuffer buffer,
+                                      final int count) {
+        final short[] values = new short[count];
+        buffer.asShortBuffer().get(values);
+        buffer.position(buffer.position() + 2 * count);
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return NUM_FEATURES + "x" + this.hiddenSize + "x2x1";
+    }
+}
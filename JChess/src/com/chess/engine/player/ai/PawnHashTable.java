@@ -0,0 +1,53 @@
+package com.chess.engine.player.ai;
+
+// This class is a fixed size hash table of pawn structure scores, keyed by the board's pawn Zobrist key. Pawns
+// move rarely, so sibling nodes and most of a subtree share their pawn structure and find it here.
+// It is shared by all search threads without locks like the transposition table: every slot is the packed
+// entry and the key xor-ed with it, a slot torn by two threads writing at once reads as a miss.
+// An entry holds both sides' scores, so the second side's probe of an evaluation always hits.
+final class PawnHashTable {
+
+    static final int DEFAULT_NUM_ENTRIES = 1 << 16;
+    private static final long PRESENT = 1L << 32;
+    private static final int BLACK_SHIFT = 16;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    PawnHashTable(final int numEntries) {
+        if (numEntries < 1 || Integer.bitCount(numEntries) != 1) {
+            throw new IllegalArgumentException("number of entries must be a power of two, was " + numEntries);
+        }
+        this.keys = new long[numEntries];
+        this.entries = new long[numEntries];
+        this.mask = numEntries - 1;
+    }
+
+    // Return: the packed entry stored for the key, or 0 if there is none
+    long probe(final long key) {
+        final int index = (int) key & this.mask;
+        final long entry = this.entries[index];
+        return entry != 0 && (this.keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    // Behavior: stores both sides' scores, replacing whatever the slot held
+    // Return: the packed entry
+    long store(final long key,
+               final int whiteScore,
+               final int blackScore) {
+        final long entry = PRESENT | (blackScore & 0xFFFFL) << BLACK_SHIFT | whiteScore & 0xFFFFL;
+        final int index = (int) key & this.mask;
+        this.entries[index] = entry;
+        this.keys[index] = key ^ entry;
+        return entry;
+    }
+
+    static int whiteScore(final long entry) {
+        return (short) entry;
+    }
+
+    static int blackScore(final long entry) {
+        return (short) (entry >>> BLACK_SHIFT);
+    }
+}
@@ -1,10 +1,11 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 public final class PawnStructureAnalyzer {
 
@@ -13,7 +14,10 @@ public final class PawnStructureAnalyzer {
     public static final int ISOLATED_PAWN_PENALTY = -10;
     public static final int DOUBLED_PAWN_PENALTY = -10;
 
+    private final PawnHashTable pawnHashTable;
+
     private PawnStructureAnalyzer() {
+        this.pawnHashTable = new PawnHashTable(PawnHashTable.DEFAULT_NUM_ENTRIES);
     }
 
     public static PawnStructureAnalyzer get() {
@@ -21,33 +25,64 @@ public final class PawnStructureAnalyzer {
     }
 
     public int isolatedPawnPenalty(final Player player) {
-        return calculateIsolatedPawnPenalty(createPawnColumnTable(calculatePlayerPawns(player)));
+        return calculateIsolatedPawnPenalty(createPawnColumnTable(player.getActivePieces()));
     }
 
     public int doubledPawnPenalty(final Player player) {
-        return calculatePawnColumnStack(createPawnColumnTable(calculatePlayerPawns(player)));
+        return calculatePawnColumnStack(createPawnColumnTable(player.getActivePieces()));
     }
 
+    // Behavior: reads the score from the pawn hash table, scoring the pawns of both sides on a miss
     public int pawnStructureScore(final Player player) {
-        final int[] pawnsOnColumnTable = createPawnColumnTable(calculatePlayerPawns(player));
+        final Board board = player.getBoard();
+        long entry = this.pawnHashTable.probe(board.getPawnZobristHash());
+        if (entry == 0) {
+            entry = this.pawnHashTable.store(board.getPawnZobristHash(), scorePawns(board, Alliance.WHITE),
+                    scorePawns(board, Alliance.BLACK));
+        }
+        return player.getAlliance().isWhite() ? PawnHashTable.whiteScore(entry) : PawnHashTable.blackScore(entry);
+    }
+
+    // Return: every pawn structure term of the alliance. A term added here may read the pawns of both sides but
+    //         nothing else, the pawn hash table keys the score by the pawns alone.
+    private static int scorePawns(final Board board,
+                                  final Alliance alliance) {
+        final int[] pawnsOnColumnTable = createPawnColumnTable(alliance.isWhite() ? board.getWhitePieces() :
+                board.getBlackPieces());
         return calculatePawnColumnStack(pawnsOnColumnTable) + calculateIsolatedPawnPenalty(pawnsOnColumnTable);
     }
 
-    private static Collection<Piece> calculatePlayerPawns(final Player player) {
-        return player.getActivePieces().stream().filter(piece -> piece.getPieceType() == Piece.PieceType.PAWN).collect(Collectors.toList());
+    // Return: the number of the pieces' pawns sharing their column with another pawn, the count the doubled pawn
+    //         penalty is multiplied by
+    static int countDoubledPawns(final Collection<Piece> playerPieces) {
+        return countStackedPawns(createPawnColumnTable(playerPieces));
+    }
+
+    // Return: the number of the pieces' pawns without a pawn on a neighbouring column, the count the isolated
+    //         pawn penalty is multiplied by
+    static int countIsolatedPawns(final Collection<Piece> playerPieces) {
+        return countIsolatedPawns(createPawnColumnTable(playerPieces));
     }
 
     private static int calculatePawnColumnStack(final int[] pawnsOnColumnTable) {
-        int pawnStackPenalty = 0;
+        return countStackedPawns(pawnsOnColumnTable) * DOUBLED_PAWN_PENALTY;
+    }
+
+    private static int countStackedPawns(final int[] pawnsOnColumnTable) {
+        int stackedPawns = 0;
         for(final int pawnStack : pawnsOnColumnTable) {
             if(pawnStack > 1) {
-                pawnStackPenalty += pawnStack;
+                stackedPawns += pawnStack;
             }
         }
-        return pawnStackPenalty * DOUBLED_PAWN_PENALTY;
+        return stackedPawns;
     }
 
     private static int calculateIsolatedPawnPenalty(final int[] pawnsOnColumnTable) {
+        return countIsolatedPawns(pawnsOnColumnTable) * ISOLATED_PAWN_PENALTY;
+    }
+
+    private static int countIsolatedPawns(final int[] pawnsOnColumnTable) {
         int numIsolatedPawns = 0;
         if(pawnsOnColumnTable[0] > 0 && pawnsOnColumnTable[1] == 0) {
             numIsolatedPawns += pawnsOnColumnTable[0];
@@ -60,13 +95,15 @@ public final class PawnStructureAnalyzer {
                 numIsolatedPawns += pawnsOnColumnTable[i];
             }
         }
-        return numIsolatedPawns * ISOLATED_PAWN_PENALTY;
+        return numIsolatedPawns;
     }
 
-    private static int[] createPawnColumnTable(final Collection<Piece> playerPawns) {
+    private static int[] createPawnColumnTable(final Collection<Piece> playerPieces) {
         final int[] table = new int[8];
-        for(final Piece playerPawn : playerPawns) {
-            table[playerPawn.getPiecePosition() % 8]++;
+        for(final Piece piece : playerPieces) {
+            if(piece.getPieceType() == Piece.PieceType.PAWN) {
+                table[piece.getPiecePosition() % 8]++;
+            }
         }
         return table;
     }
@@ -0,0 +1,104 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+import java.util.Arrays;
+
+// This class is the stack of position hashes from the start of the reversible window down to the node being
+// searched. A small table counts the pushed hashes by their low bits, so asking whether a position repeats
+// costs one array read unless a position with the same low bits is on the stack; only then is the stack
+// scanned, and only over the reversible window. Pushes and pops follow the recursion, so no hash is ever
+// removed out of order.
+final class PositionHistory {
+
+    private static final int FILTER_SIZE = 1 << 12;
+    private static final int FILTER_MASK = FILTER_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 128;
+    private static final int MIN_REPETITION_DISTANCE = 4;
+
+    private final int[] filter;
+    private long[] keys;
+    private int size;
+
+    private PositionHistory(final long[] keys,
+                            final int size) {
+        this.filter = new int[FILTER_SIZE];
+        this.keys = keys;
+        this.size = size;
+        for (int i = 0; i < size; i++) {
+            this.filter[(int) keys[i] & FILTER_MASK]++;
+        }
+    }
+
+    // Behavior: creates the history of a root board from the moves that led to it, going back no further
+    //           than its halfmove clock since no earlier position can occur again
+    static PositionHistory of(final Board root) {
+        final int window = root.getHalfmoveClock();
+        final long[] ancestors = new long[window + 1];
+        int count = 0;
+        ancestors[count++] = root.getZobristHash();
+        Move move = root.getTransitionMove();
+        while (count <= window && move != Move.MoveFactory.getNullMove()) {
+            final Board parent = move.getBoard();
+            ancestors[count++] = parent.getZobristHash();
+            move = parent.getTransitionMove();
+        }
+        final long[] keys = new long[Math.max(INITIAL_CAPACITY, count * 2)];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ancestors[count - 1 - i];
+        }
+        return new PositionHistory(keys, count);
+    }
+
+    // Return: a copy that can be pushed and popped independently, one per search thread
+    PositionHistory copy() {
+        return new PositionHistory(this.keys.clone(), this.size);
+    }
+
+    // Behavior: makes this history a copy of the source again, reusing its arrays when they are large enough
+    void reset(final PositionHistory source) {
+        if (this.keys.length < source.size) {
+            this.keys = new long[source.keys.length];
+        }
+        System.arraycopy(source.keys, 0, this.keys, 0, source.size);
+        this.size = source.size;
+        Arrays.fill(this.filter, 0);
+        for (int i = 0; i < this.size; i++) {
+            this.filter[(int) this.keys[i] & FILTER_MASK]++;
+        }
+    }
+
+    void push(final long key) {
+        if (this.size == this.keys.length) {
+            final long[] grown = new long[this.keys.length * 2];
+            System.arraycopy(this.keys, 0, grown, 0, this.size);
+            this.keys = grown;
+        }
+        this.keys[this.size++] = key;
+        this.filter[(int) key & FILTER_MASK]++;
+    }
+
+    void pop() {
+        final long key = this.keys[--this.size];
+        this.filter[(int) key & FILTER_MASK]--;
+    }
+
+    // Behavior: checks whether the position about to be pushed already occurred within its reversible window
+    // Parameter:
+    //      key: the Zobrist hash of the position
+    //      halfmoveClock: the position's halfmove clock, bounding how far back it can have occurred
+    boolean isRepetition(final long key,
+                         final int halfmoveClock) {
+        if (this.filter[(int) key & FILTER_MASK] == 0) {
+            return false;
+        }
+        final int oldest = Math.max(0, this.size - halfmoveClock);
+        for (int i = this.size - MIN_REPETITION_DISTANCE; i >= oldest; i -= 2) {
+            if (this.keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
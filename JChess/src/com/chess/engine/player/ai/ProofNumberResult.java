@@ -0,0 +1,86 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// This class is the outcome of a proof-number search: whether the side to move can force mate within the
+// searched number of moves, a line of the proof when it can, and what the search cost.
+public final class ProofNumberResult {
+
+    public enum Outcome {
+        PROVEN,
+        DISPROVEN,
+        UNKNOWN
+    }
+
+    private final Outcome outcome;
+    private final List<Move> proofLine;
+    private final Move bestMove;
+    private final long nodes;
+    private final int treeNodes;
+    private final long elapsedMillis;
+
+    ProofNumberResult(final Outcome outcome,
+                      final List<Move> proofLine,
+                      final Move bestMove,
+                      final long nodes,
+                      final int treeNodes,
+                      final long elapsedMillis) {
+        this.outcome = outcome;
+        this.proofLine = ImmutableList.copyOf(proofLine);
+        this.bestMove = bestMove;
+        this.nodes = nodes;
+        this.treeNodes = treeNodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Outcome getOutcome() {
+        return this.outcome;
+    }
+
+    public boolean isProven() {
+        return this.outcome == Outcome.PROVEN;
+    }
+
+    // Return: the moves from the root to a mate, the defender answering every attacking move, or an empty list
+    //         if the mate was not proven
+    public List<Move> getProofLine() {
+        return this.proofLine;
+    }
+
+    // Return: the number of moves to the mate of the proof line
+    public int getMateIn() {
+        if (!isProven()) {
+            throw new IllegalStateException("no mate was proven, outcome " + this.outcome);
+        }
+        return (this.proofLine.size() + 1) / 2;
+    }
+
+    // Return: the first move of the proof line, or the most promising root move if no mate was proven, or the
+    //         null move if the side to move has no legal move
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    // Return: the number of positions generated over both levels of the search
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    // Return: the number of nodes of the first level tree when the search ended
+    public int getTreeNodes() {
+        return this.treeNodes;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return this.outcome + (isProven() ? " mate in " + getMateIn() + " " + this.proofLine : "") +
+                ", nodes = " + this.nodes + ", tree nodes = " + this.treeNodes + ", time = " + this.elapsedMillis + " ms";
+    }
+}
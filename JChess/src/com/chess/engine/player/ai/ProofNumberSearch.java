@@ -0,0 +1,332 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// This class proves or disproves that the side to move can force mate within a number of moves, using
+// proof-number search with a second level (PN2). Every node carries a proof number, the least number of
+// leaves that must be proven to prove it, and a disproof number, the same for disproving it. The search keeps
+// expanding the most proving leaf, reached by following the child with the smallest proof number where the
+// attacker moves and the smallest disproof number where the defender moves.
+// The first level tree is bounded: a leaf selected there is searched by a second, throw-away proof-number
+// search no larger than the first level tree, and only its children and their numbers are kept.
+// Nodes hold squares instead of boards, the boards on the way down are rebuilt from the root.
+public class ProofNumberSearch implements MoveStrategy {
+
+    public static final long DEFAULT_NODE_BUDGET = 2_000_000;
+    public static final int DEFAULT_MAX_TREE_NODES = 500_000;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int mateInMoves;
+    private final int maxPlies;
+    private final long nodeBudget;
+    private final int maxTreeNodes;
+    private final LongAdder boardsEvaluated;
+
+    public ProofNumberSearch(final int mateInMoves) {
+        this(mateInMoves, DEFAULT_NODE_BUDGET, DEFAULT_MAX_TREE_NODES);
+    }
+
+    // Parameter:
+    //      mateInMoves: the number of attacking moves the mate must be delivered in
+    //      nodeBudget: the number of positions the search may generate, over both levels
+    //      maxTreeNodes: the number of nodes the first level tree may hold, which bounds the memory used
+    public ProofNumberSearch(final int mateInMoves,
+                             final long nodeBudget,
+                             final int maxTreeNodes) {
+        if (mateInMoves < 1) {
+            throw new IllegalArgumentException("mate must be in at least 1 move, was " + mateInMoves);
+        }
+        if (nodeBudget < 1 || maxTreeNodes < 1) {
+            throw new IllegalArgumentException("node budget and tree size must be positive, were " + nodeBudget +
+                    " and " + maxTreeNodes);
+        }
+        this.mateInMoves = mateInMoves;
+        this.maxPlies = 2 * mateInMoves - 1;
+        this.nodeBudget = nodeBudget;
+        this.maxTreeNodes = maxTreeNodes;
+        this.boardsEvaluated = new LongAdder();
+    }
+
+    @Override
+    public String toString() {
+        return "PN2(mate in " + this.mateInMoves + ")";
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated.sum();
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, SearchLimits.infinite());
+    }
+
+    @Override
+    public Move execute(final Board board,
+                        final SearchController controller) {
+        return solve(board, controller).getBestMove();
+    }
+
+    public ProofNumberResult solve(final Board board) {
+        return solve(board, new SearchController(SearchLimits.infinite()));
+    }
+
+    // Behavior: searches until the mate is proven or disproven, the node budget or the tree bound is used up
+    //           or the controller stops the search
+    public ProofNumberResult solve(final Board board,
+                                   final SearchController controller) {
+        controller.start();
+        return new Search(board, controller).run();
+    }
+
+    private static int add(final int a,
+                           final int b) {
+        return a >= INFINITY - b ? INFINITY : a + b;
+    }
+
+    // Return: the legal move of the board between the squares, or null if there is none
+    private static Move findMove(final Board board,
+                                 final int from,
+                                 final int to) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() == from && move.getDestinationCoordinate() == to) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private static Board play(final Board board,
+                              final Node node) {
+        return findMove(board, node.from, node.to).execute();
+    }
+
+    // This class is a node of either level's tree. Attacker nodes are OR nodes, one proven child proves them;
+    // defender nodes are AND nodes, every child must be proven.
+    private static final class Node {
+
+        final Node parent;
+        final byte from;
+        final byte to;
+        final boolean attackerToMove;
+        final int ply;
+        int proof;
+        int disproof;
+        boolean terminal;
+        Node[] children;
+
+        Node(final Node parent,
+             final int from,
+             final int to,
+             final boolean attackerToMove,
+             final int ply) {
+            this.parent = parent;
+            this.from = (byte) from;
+            this.to = (byte) to;
+            this.attackerToMove = attackerToMove;
+            this.ply = ply;
+        }
+
+        boolean isSolved() {
+            return this.proof == 0 || this.disproof == 0;
+        }
+
+        void update() {
+            if (this.attackerToMove) {
+                int proof = INFINITY;
+                int disproof = 0;
+                for (final Node child : this.children) {
+                    proof = Math.min(proof, child.proof);
+                    disproof = add(disproof, child.disproof);
+                }
+                this.proof = proof;
+                this.disproof = disproof;
+            } else {
+                int proof = 0;
+                int disproof = INFINITY;
+                for (final Node child : this.children) {
+                    proof = add(proof, child.proof);
+                    disproof = Math.min(disproof, child.disproof);
+                }
+                this.proof = proof;
+                this.disproof = disproof;
+            }
+        }
+
+        // Return: the child to follow towards the most proving leaf
+        Node mostProvingChild() {
+            Node best = this.children[0];
+            for (final Node child : this.children) {
+                if (this.attackerToMove ? child.proof < best.proof : child.disproof < best.disproof) {
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        Node provenChild() {
+            for (final Node child : this.children) {
+                if (child.proof == 0) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    // This class holds the state of one call to solve
+    private final class Search {
+
+        private final Board root;
+        private final SearchController controller;
+        private final Node rootNode;
+        private long nodes;
+        private int treeNodes;
+
+        Search(final Board root,
+               final SearchController controller) {
+            this.root = root;
+            this.controller = controller;
+            this.rootNode = new Node(null, -1, -1, true, 0);
+            evaluate(this.rootNode, root);
+            this.nodes = 1;
+            this.treeNodes = 1;
+        }
+
+        ProofNumberResult run() {
+            while (!this.rootNode.isSolved() && !isOutOfBudget() && this.treeNodes < maxTreeNodes) {
+                Node node = this.rootNode;
+                Board board = this.root;
+                while (node.children != null) {
+                    node = node.mostProvingChild();
+                    board = play(board, node);
+                }
+                final long limit = Math.max(1, Math.min(this.treeNodes, maxTreeNodes - this.treeNodes));
+                search(node, board, limit, true);
+                if (node.children != null) {
+                    this.treeNodes += node.children.length;
+                    for (final Node child : node.children) {
+                        child.children = null;
+                    }
+                }
+                updateAncestors(node.parent, null);
+            }
+            final ProofNumberResult.Outcome outcome = this.rootNode.proof == 0 ? ProofNumberResult.Outcome.PROVEN :
+                    this.rootNode.disproof == 0 ? ProofNumberResult.Outcome.DISPROVEN : ProofNumberResult.Outcome.UNKNOWN;
+            final List<Move> proofLine = outcome == ProofNumberResult.Outcome.PROVEN ? proofLine() : new ArrayList<>();
+            final Move bestMove = !proofLine.isEmpty() ? proofLine.get(0) : mostPromisingMove();
+            if (bestMove != null) {
+                this.controller.updateBestMove(bestMove);
+            }
+            return new ProofNumberResult(outcome, proofLine, bestMove != null ? bestMove : Move.MoveFactory.getNullMove(),
+                    this.nodes, this.treeNodes, this.controller.getElapsedMillis());
+        }
+
+        // Behavior: a plain proof-number search below the node that keeps its tree, generating about limit nodes
+        // Parameter:
+        //      budgeted: false to ignore the node budget, only used to rebuild a subtree already proven
+        private void search(final Node searchRoot,
+                            final Board searchRootBoard,
+                            final long limit,
+                            final boolean budgeted) {
+            final long start = this.nodes;
+            while (!searchRoot.isSolved() && this.nodes - start < limit &&
+                    !(budgeted ? isOutOfBudget() : this.controller.checkpoint())) {
+                Node node = searchRoot;
+                Board board = searchRootBoard;
+                while (node.children != null) {
+                    node = node.mostProvingChild();
+                    board = play(board, node);
+                }
+                expand(node, board);
+                updateAncestors(node, searchRoot.parent);
+            }
+        }
+
+        private boolean isOutOfBudget() {
+            return this.nodes >= nodeBudget || this.controller.checkpoint();
+        }
+
+        private void expand(final Node node,
+                            final Board board) {
+            final List<Node> children = new ArrayList<>();
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if (transition.getMoveStatus().isDone()) {
+                    final Node child = new Node(node, move.getCurrentCoordinate(), move.getDestinationCoordinate(),
+                            !node.attackerToMove, node.ply + 1);
+                    evaluate(child, transition.getTransitionBoard());
+                    children.add(child);
+                    this.nodes++;
+                    boardsEvaluated.increment();
+                }
+            }
+            node.children = children.toArray(new Node[0]);
+        }
+
+        // Behavior: sets the numbers of a new node, solving it when the game is over or the ply limit is reached.
+        //           Unsolved nodes start from their mobility: the more moves the defender has, the more leaves
+        //           must be proven.
+        private void evaluate(final Node node,
+                              final Board board) {
+            final boolean attackerWins;
+            if (board.currentPlayer().isInCheckMate()) {
+                attackerWins = !node.attackerToMove;
+            } else if (board.currentPlayer().isInStaleMate() || node.ply >= maxPlies) {
+                attackerWins = false;
+            } else {
+                final int mobility = Math.max(1, board.currentPlayer().getLegalMoves().size());
+                node.proof = node.attackerToMove ? 1 : mobility;
+                node.disproof = node.attackerToMove ? mobility : 1;
+                return;
+            }
+            node.terminal = true;
+            node.proof = attackerWins ? 0 : INFINITY;
+            node.disproof = attackerWins ? INFINITY : 0;
+        }
+
+        private void updateAncestors(final Node from,
+                                     final Node stop) {
+            for (Node node = from; node != stop; node = node.parent) {
+                node.update();
+            }
+        }
+
+        // Behavior: follows proven attacking moves and the defender's first reply from the root, searching again
+        //           below nodes whose subtrees the second level has thrown away
+        private List<Move> proofLine() {
+            final List<Move> line = new ArrayList<>();
+            Node node = this.rootNode;
+            Board board = this.root;
+            while (!node.terminal) {
+                if (node.children == null) {
+                    evaluate(node, board);
+                    search(node, board, Long.MAX_VALUE, false);
+                    if (node.proof != 0) {
+                        break;
+                    }
+                }
+                node = node.attackerToMove ? node.provenChild() : node.children[0];
+                final Move move = findMove(board, node.from, node.to);
+                line.add(move);
+                board = move.execute();
+            }
+            return line;
+        }
+
+        private Move mostPromisingMove() {
+            if (this.rootNode.children == null || this.rootNode.children.length == 0) {
+                return null;
+            }
+            final Node child = this.rootNode.mostProvingChild();
+            return findMove(this.root, child.from, child.to);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.chess.engine.player.ai;
+
+// This class holds the tunable parts of StockAlphaBeta's selective search, so that each technique can be
+// switched off or re-tuned for A/B testing without touching the search itself. Margins are in evaluator units.
+public final class SearchConfiguration {
+
+    public static final SearchConfiguration DEFAULT = new Builder().build();
+
+    private final boolean futilityPruning;
+    private final int futilityMargin;
+    private final int extendedFutilityMargin;
+    private final boolean razoring;
+    private final int razorMargin;
+    private final boolean checkExtensions;
+    private final boolean singularExtensions;
+    private final int singularMargin;
+    private final int singularMinDepth;
+    private final int maxExtensionsPerLine;
+    private final int transpositionTableSize;
+    private final int evaluationCacheSize;
+    private final boolean lazyEvaluation;
+
+    private SearchConfiguration(final Builder builder) {
+        this.futilityPruning = builder.futilityPruning;
+        this.futilityMargin = builder.futilityMargin;
+        this.extendedFutilityMargin = builder.extendedFutilityMargin;
+        this.razoring = builder.razoring;
+        this.razorMargin = builder.razorMargin;
+        this.checkExtensions = builder.checkExtensions;
+        this.singularExtensions = builder.singularExtensions;
+        this.singularMargin = builder.singularMargin;
+        this.singularMinDepth = builder.singularMinDepth;
+        this.maxExtensionsPerLine = builder.maxExtensionsPerLine;
+        this.transpositionTableSize = builder.transpositionTableSize;
+        this.evaluationCacheSize = builder.evaluationCacheSize;
+        this.lazyEvaluation = builder.lazyEvaluation;
+    }
+
+    // Behavior: at frontier nodes (depth 1) quiet moves are skipped when the static eval plus futilityMargin
+    //           cannot reach alpha, at pre-frontier nodes (depth 2) the same is done with extendedFutilityMargin
+    public boolean isFutilityPruning() {
+        return this.futilityPruning;
+    }
+
+    public int getFutilityMargin() {
+        return this.futilityMargin;
+    }
+
+    public int getExtendedFutilityMargin() {
+        return this.extendedFutilityMargin;
+    }
+
+    // Behavior: at pre-pre-frontier nodes (depth 3) the search is reduced by one ply when the static eval
+    //           plus razorMargin cannot reach alpha
+    public boolean isRazoring() {
+        return this.razoring;
+    }
+
+    public int getRazorMargin() {
+        return this.razorMargin;
+    }
+
+    // Behavior: a move that puts the opponent in check is searched one ply deeper
+    public boolean isCheckExtensions() {
+        return this.checkExtensions;
+    }
+
+    // Behavior: the transposition table move is searched one ply deeper when a reduced search of every other
+    //           move, at singularMinDepth and above, stays singularMargin below its stored score
+    public boolean isSingularExtensions() {
+        return this.singularExtensions;
+    }
+
+    public int getSingularMargin() {
+        return this.singularMargin;
+    }
+
+    public int getSingularMinDepth() {
+        return this.singularMinDepth;
+    }
+
+    // Behavior: caps the check and singular extensions granted along a single line of play
+    public int getMaxExtensionsPerLine() {
+        return this.maxExtensionsPerLine;
+    }
+
+    // Behavior: returns the transposition table size in megabytes
+    public int getTranspositionTableSize() {
+        return this.transpositionTableSize;
+    }
+
+    // Behavior: returns the size of the evaluation cache in front of the evaluator in megabytes, 0 if there is none
+    public int getEvaluationCacheSize() {
+        return this.evaluationCacheSize;
+    }
+
+    // Behavior: at leaves the evaluator is given the window and may stop at its cheap terms when they alone put
+    //           the score outside it
+    public boolean isLazyEvaluation() {
+        return this.lazyEvaluation;
+    }
+
+    @Override
+    public String toString() {
+        return "futility = " + (this.futilityPruning ? this.futilityMargin + "/" + this.extendedFutilityMargin : "off") +
+                ", razoring = " + (this.razoring ? this.razorMargin : "off") +
+                ", check extensions = " + (this.checkExtensions ? "on" : "off") +
+                ", singular extensions = " + (this.singularExtensions ? this.singularMargin + "@" + this.singularMinDepth : "off") +
+                ", max extensions = " + this.maxExtensionsPerLine +
+                ", tt = " + this.transpositionTableSize + " MB" +
+                ", eval cache = " + (this.evaluationCacheSize > 0 ? this.evaluationCacheSize + " MB" : "off") +
+                ", lazy eval = " + (this.lazyEvaluation ? "on" : "off");
+    }
+
+    public static class Builder {
+
+        boolean futilityPruning;
+        int futilityMargin;
+        int extendedFutilityMargin;
+        boolean razoring;
+        int razorMargin;
+        boolean checkExtensions;
+        boolean singularExtensions;
+        int singularMargin;
+        int singularMinDepth;
+        int maxExtensionsPerLine;
+        int transpositionTableSize;
+        int evaluationCacheSize;
+        boolean lazyEvaluation;
+
+        public Builder() {
+            this.futilityPruning = true;
+            this.futilityMargin = 300;
+            this.extendedFutilityMargin = 500;
+            this.razoring = true;
+            this.razorMargin = 900;
+            this.checkExtensions = true;
+            this.singularExtensions = true;
+            this.singularMargin = 50;
+            this.singularMinDepth = 4;
+            this.maxExtensionsPerLine = 4;
+            this.transpositionTableSize = 16;
+            this.evaluationCacheSize = CachingBoardEvaluator.DEFAULT_SIZE_IN_MEGABYTES;
+            this.lazyEvaluation = true;
+        }
+
+        public Builder setFutilityPruning(final boolean futilityPruning) {
+            this.futilityPruning = futilityPruning;
+            return this;
+        }
+
+        public Builder setFutilityMargin(final int futilityMargin) {
+            this.futilityMargin = checkMargin(futilityMargin);
+            return this;
+        }
+
+        public Builder setExtendedFutilityMargin(final int extendedFutilityMargin) {
+            this.extendedFutilityMargin = checkMargin(extendedFutilityMargin);
+            return this;
+        }
+
+        public Builder setRazoring(final boolean razoring) {
+            this.razoring = razoring;
+            return this;
+        }
+
+        public Builder setRazorMargin(final int razorMargin) {
+            this.razorMargin = checkMargin(razorMargin);
+            return this;
+        }
+
+        public Builder setCheckExtensions(final boolean checkExtensions) {
+            this.checkExtensions = checkExtensions;
+            return this;
+        }
+
+        public Builder setSingularExtensions(final boolean singularExtensions) {
+            this.singularExtensions = singularExtensions;
+            return this;
+        }
+
+        public Builder setSingularMargin(final int singularMargin) {
+            this.singularMargin = checkMargin(singularMargin);
+            return this;
+        }
+
+        public Builder setSingularMinDepth(final int singularMinDepth) {
+            if (singularMinDepth < 2) {
+                throw new IllegalArgumentException("singular extension depth must be at least 2, was " + singularMinDepth);
+            }
+            this.singularMinDepth = singularMinDepth;
+            return this;
+        }
+
+        public Builder setMaxExtensionsPerLine(final int maxExtensionsPerLine) {
+            if (maxExtensionsPerLine < 0) {
+                throw new IllegalArgumentException("max extensions must not be negative, was " + maxExtensionsPerLine);
+            }
+            this.maxExtensionsPerLine = maxExtensionsPerLine;
+            return this;
+        }
+
+        public Builder setTranspositionTableSize(final int megabytes) {
+            if (megabytes < 1) {
+                throw new IllegalArgumentException("transposition table size must be at least 1 MB, was " + megabytes);
+            }
+            this.transpositionTableSize = megabytes;
+            return this;
+        }
+
+        // Parameter:
+        //      megabytes: the size of the evaluation cache, 0 to evaluate every position afresh
+        public Builder setEvaluationCacheSize(final int megabytes) {
+            if (megabytes < 0) {
+                throw new IllegalArgumentException("evaluation cache size must not be negative, was " + megabytes);
+            }
+            this.evaluationCacheSize = megabytes;
+            return this;
+        }
+
+        public Builder setLazyEvaluation(final boolean lazyEvaluation) {
+            this.lazyEvaluation = lazyEvaluation;
+            return this;
+        }
+
+        public SearchConfiguration build() {
+            return new SearchConfiguration(this);
+        }
+
+        private static int checkMargin(final int margin) {
+            if (margin < 0) {
+                throw new IllegalArgumentException("margin must not be negative, was " + margin);
+            }
+            return margin;
+        }
+    }
+}
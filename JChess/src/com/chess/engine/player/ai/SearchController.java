@@ -0,0 +1,94 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+// This class lets another thread stop a running search and read the best move found so far.
+// Searchers poll it every NODES_BETWEEN_CHECKS nodes, so a stop or an expired hard deadline
+// is noticed within a handful of nodes.
+// A pondering controller runs a search on the opponent's time: it ignores its deadlines until the opponent plays
+// the predicted move and ponderHit turns it into a normal search, its clock starting then.
+public final class SearchController {
+
+    static final int NODES_BETWEEN_CHECKS = 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final SearchLimits limits;
+    private volatile long startTime;
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private volatile Move bestMove;
+
+    public SearchController(final SearchLimits limits) {
+        this(limits, false);
+    }
+
+    private SearchController(final SearchLimits limits,
+                             final boolean pondering) {
+        this.limits = limits;
+        this.startTime = System.nanoTime();
+        this.stopped = false;
+        this.pondering = pondering;
+        this.bestMove = null;
+    }
+
+    // Return: a controller for a search of the position after the predicted reply, bounded only by the depth
+    //         limit and stop until ponderHit is called
+    public static SearchController pondering(final SearchLimits limits) {
+        return new SearchController(limits, true);
+    }
+
+    public SearchLimits getLimits() {
+        return this.limits;
+    }
+
+    // Behavior: asks the search to stop as soon as possible. Safe to call from any thread, before or during the search.
+    public void stop() {
+        this.stopped = true;
+    }
+
+    // Behavior: the opponent played the predicted move, the search goes on as the real one and its time limits
+    //           count from now. Safe to call from any thread, also after the search has finished.
+    public void ponderHit() {
+        this.startTime = System.nanoTime();
+        this.pondering = false;
+    }
+
+    public boolean isPondering() {
+        return this.pondering;
+    }
+
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    // Behavior: returns the best move of the deepest completed work, or null if no root move has been searched yet
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - this.startTime) / NANOS_PER_MILLI;
+    }
+
+    void start() {
+        this.startTime = System.nanoTime();
+    }
+
+    void updateBestMove(final Move move) {
+        this.bestMove = move;
+    }
+
+    // Behavior: polled by the searchers, stops the search once the hard deadline has passed
+    // Return: true if the search must unwind now
+    boolean checkpoint() {
+        if (!this.stopped && !this.pondering && this.limits.hasTimeLimit() && getElapsedMillis() >= this.limits.getHardTimeMillis()) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    // Behavior: checks whether the soft deadline has passed, after which no new iteration should be started
+    boolean isSoftDeadlineReached() {
+        return !this.pondering && this.limits.hasTimeLimit() && getElapsedMillis() >= this.limits.getSoftTimeMillis();
+    }
+}
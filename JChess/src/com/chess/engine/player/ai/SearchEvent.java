@@ -0,0 +1,158 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// This class is the base of the events a search publishes while it runs. Scores are from the point of view
+// of the side to move at the root. Events are immutable and may be read on any thread.
+public abstract class SearchEvent {
+
+    public enum Type {
+        PRINCIPAL_VARIATION,
+        ITERATION_COMPLETE,
+        BEST_MOVE
+    }
+
+    private final int depth;
+    private final int score;
+    private final long elapsedMillis;
+
+    private SearchEvent(final int depth,
+                        final int score,
+                        final long elapsedMillis) {
+        this.depth = depth;
+        this.score = score;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public abstract Type getType();
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    // This event is published whenever a root move becomes the best of the running iteration
+    public static final class PrincipalVariation extends SearchEvent {
+
+        private final List<Move> line;
+
+        PrincipalVariation(final int depth,
+                           final int score,
+                           final long elapsedMillis,
+                           final List<Move> line) {
+            super(depth, score, elapsedMillis);
+            this.line = ImmutableList.copyOf(line);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.PRINCIPAL_VARIATION;
+        }
+
+        public List<Move> getLine() {
+            return this.line;
+        }
+
+        @Override
+        public String toString() {
+            return "pv depth " + getDepth() + " score " + MateScores.format(getScore()) + " time " + getElapsedMillis() +
+                    " " + this.line;
+        }
+    }
+
+    // This event is published once an iteration of iterative deepening has searched every root move
+    public static final class IterationComplete extends SearchEvent {
+
+        private final Move bestMove;
+        private final long nodes;
+        private final long totalNodes;
+        private final List<Move> line;
+
+        IterationComplete(final int depth,
+                          final int score,
+                          final long elapsedMillis,
+                          final Move bestMove,
+                          final long nodes,
+                          final long totalNodes,
+                          final List<Move> line) {
+            super(depth, score, elapsedMillis);
+            this.bestMove = bestMove;
+            this.nodes = nodes;
+            this.totalNodes = totalNodes;
+            this.line = ImmutableList.copyOf(line);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.ITERATION_COMPLETE;
+        }
+
+        public Move getBestMove() {
+            return this.bestMove;
+        }
+
+        // Return: the number of nodes searched by this iteration
+        public long getNodes() {
+            return this.nodes;
+        }
+
+        // Return: the number of nodes searched since the search started
+        public long getTotalNodes() {
+            return this.totalNodes;
+        }
+
+        public long getNodesPerSecond() {
+            return this.totalNodes * 1000 / Math.max(1, getElapsedMillis());
+        }
+
+        // Return: the best move followed by the best play of both sides found after it
+        public List<Move> getLine() {
+            return this.line;
+        }
+
+        @Override
+        public String toString() {
+            return "iteration depth " + getDepth() + " score " + MateScores.format(getScore()) + " nodes " + this.totalNodes +
+                    " nps " + getNodesPerSecond() + " time " + getElapsedMillis() + " pv " + this.line;
+        }
+    }
+
+    // This event is the last one of a search and carries its result
+    public static final class BestMove extends SearchEvent {
+
+        private final SearchResult result;
+
+        BestMove(final SearchResult result) {
+            super(result.getDepth(), result.getScore(), result.getStats().getElapsedMillis());
+            this.result = result;
+        }
+
+        @Override
+        public Type getType() {
+            return Type.BEST_MOVE;
+        }
+
+        public SearchResult getResult() {
+            return this.result;
+        }
+
+        public Move getMove() {
+            return this.result.getBestMove();
+        }
+
+        @Override
+        public String toString() {
+            return "bestmove " + getMove() + " depth " + getDepth() + " score " + MateScores.format(getScore());
+        }
+    }
+}
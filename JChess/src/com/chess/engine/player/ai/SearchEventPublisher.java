@@ -0,0 +1,64 @@
+package com.chess.engine.player.ai;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+// This class hands search events to subscribers on the subscribers' own executor. Every subscriber has a
+// bounded buffer; when a slow subscriber's buffer is full the event is dropped for that subscriber only,
+// so publishing never waits and a listener can never stall the search.
+public final class SearchEventPublisher implements Flow.Publisher<SearchEvent> {
+
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+
+    private final SubmissionPublisher<SearchEvent> publisher;
+    private final LongAdder droppedEvents;
+
+    public SearchEventPublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_CAPACITY);
+    }
+
+    public SearchEventPublisher(final Executor executor,
+                                final int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("buffer capacity must be at least 1, was " + bufferCapacity);
+        }
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.droppedEvents = new LongAdder();
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super SearchEvent> subscriber) {
+        this.publisher.subscribe(subscriber);
+    }
+
+    public boolean hasSubscribers() {
+        return this.publisher.hasSubscribers();
+    }
+
+    // Behavior: returns the number of (event, subscriber) deliveries dropped because a buffer was full
+    public long getDroppedEvents() {
+        return this.droppedEvents.sum();
+    }
+
+    // Behavior: completes every subscription, no events can be published afterwards
+    public void close() {
+        this.publisher.close();
+    }
+
+    void publish(final SearchEvent event) {
+        if (this.publisher.isClosed() || !this.publisher.hasSubscribers()) {
+            return;
+        }
+        try {
+            this.publisher.offer(event, (subscriber, dropped) -> {
+                this.droppedEvents.increment();
+                return false;
+            });
+        } catch (final IllegalStateException e) {
+            // closed by another thread since the check above
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.chess.engine.player.ai;
+
+// This class describes how far a search may go: a maximum depth and optional soft and hard time budgets.
+// The soft budget stops a search from starting another iteration, the hard budget aborts the running one.
+public final class SearchLimits {
+
+    public static final int MAX_SEARCH_DEPTH = 64;
+    private static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+    private final int depth;
+    private final long softTimeMillis;
+    private final long hardTimeMillis;
+
+    private SearchLimits(final Builder builder) {
+        this.depth = builder.depth;
+        this.softTimeMillis = Math.min(builder.softTimeMillis, builder.hardTimeMillis);
+        this.hardTimeMillis = builder.hardTimeMillis;
+    }
+
+    public static SearchLimits ofDepth(final int depth) {
+        return new Builder().setDepth(depth).build();
+    }
+
+    public static SearchLimits ofTime(final long softTimeMillis,
+                                      final long hardTimeMillis) {
+        return new Builder().setSoftTimeMillis(softTimeMillis).setHardTimeMillis(hardTimeMillis).build();
+    }
+
+    public static SearchLimits infinite() {
+        return new Builder().build();
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public boolean hasTimeLimit() {
+        return this.softTimeMillis != NO_TIME_LIMIT;
+    }
+
+    public long getSoftTimeMillis() {
+        return this.softTimeMillis;
+    }
+
+    public long getHardTimeMillis() {
+        return this.hardTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "depth = " + this.depth + (hasTimeLimit() ?
+                ", soft = " + this.softTimeMillis + " ms, hard = " + this.hardTimeMillis + " ms" : "");
+    }
+
+    public static class Builder {
+
+        int depth;
+        long softTimeMillis;
+        long hardTimeMillis;
+
+        public Builder() {
+            this.depth = MAX_SEARCH_DEPTH;
+            this.softTimeMillis = NO_TIME_LIMIT;
+            this.hardTimeMillis = NO_TIME_LIMIT;
+        }
+
+        public Builder setDepth(final int depth) {
+            if (depth < 1 || depth > MAX_SEARCH_DEPTH) {
+                throw new IllegalArgumentException("depth must be between 1 and " + MAX_SEARCH_DEPTH + ", was " + depth);
+            }
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder setSoftTimeMillis(final long softTimeMillis) {
+            this.softTimeMillis = softTimeMillis;
+            return this;
+        }
+
+        public Builder setHardTimeMillis(final long hardTimeMillis) {
+            this.hardTimeMillis = hardTimeMillis;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
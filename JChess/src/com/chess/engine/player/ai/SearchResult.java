@@ -0,0 +1,72 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+// This class is the outcome of a search: the chosen move, its score from the side to move's point of view,
+// the line expected to follow it, the deepest completed iteration and the statistics gathered on the way.
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final List<Move> principalVariation;
+    private final int depth;
+    private final SearchStats stats;
+
+    SearchResult(final Move bestMove,
+                 final int score,
+                 final List<Move> principalVariation,
+                 final int depth,
+                 final SearchStats stats) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.principalVariation = ImmutableList.copyOf(principalVariation);
+        this.depth = depth;
+        this.stats = stats;
+    }
+
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public boolean isMate() {
+        return MateScores.isMate(this.score);
+    }
+
+    // Return: the number of moves to mate, positive if the side to move mates and negative if it gets mated
+    public int getMateIn() {
+        return MateScores.mateIn(this.score);
+    }
+
+    // Return: the best move followed by the best play of both sides found after it, empty if no root move
+    //         was searched
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    // Return: the opponent's expected reply to the best move, the move to ponder on, or the null move if the
+    //         line ends with the best move
+    public Move getPonderMove() {
+        return this.principalVariation.size() > 1 ? this.principalVariation.get(1) : Move.MoveFactory.getNullMove();
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public SearchStats getStats() {
+        return this.stats;
+    }
+
+    @Override
+    public String toString() {
+        return this.bestMove + " [" + (isMate() ? MateScores.format(this.score) : "score: " + this.score) +
+                ", depth: " + this.depth + "] " + this.stats;
+    }
+}
@@ -0,0 +1,63 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+// This class is one search thread's stack of frames, one per ply, allocated up front and reused by every node
+// at that ply. A frame holds the node's move picker with its move buffers, the ply's killer moves and the
+// static evaluation last computed at the ply. A node only touches its own frame and the ones below it, so the
+// frames of the nodes on the current line are never overwritten while they are in use.
+final class SearchStack {
+
+    private Frame[] frames;
+
+    SearchStack(final int maxPly) {
+        this.frames = new Frame[maxPly];
+        for (int i = 0; i < maxPly; i++) {
+            this.frames[i] = new Frame();
+        }
+    }
+
+    // Behavior: returns the frame of the ply, growing the stack once if extensions carried a line past its end
+    Frame frame(final int ply) {
+        if (ply >= this.frames.length) {
+            final Frame[] grown = new Frame[Math.max(ply + 1, this.frames.length * 2)];
+            System.arraycopy(this.frames, 0, grown, 0, this.frames.length);
+            for (int i = this.frames.length; i < grown.length; i++) {
+                grown[i] = new Frame();
+            }
+            this.frames = grown;
+        }
+        return this.frames[ply];
+    }
+
+    static final class Frame {
+
+        final MovePicker movePicker;
+        final Move[] killers;
+        private long evalKey;
+        private int staticEval;
+        private boolean hasStaticEval;
+
+        private Frame() {
+            this.movePicker = new MovePicker();
+            this.killers = new Move[2];
+        }
+
+        // Return: true if the static evaluation of the position with the given key is cached. The exclusion search
+        //         of a singular extension revisits its node at the same ply and reuses it.
+        boolean hasStaticEval(final long key) {
+            return this.hasStaticEval && this.evalKey == key;
+        }
+
+        int getStaticEval() {
+            return this.staticEval;
+        }
+
+        void setStaticEval(final long key,
+                           final int staticEval) {
+            this.evalKey = key;
+            this.staticEval = staticEval;
+            this.hasStaticEval = true;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.chess.engine.player.ai;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// This class collects the counters of one search. Searchers add to it in batches, so it can be read
+// from any thread while the search is running.
+public final class SearchStats {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long startTime;
+    private volatile long endTime;
+    private final LongAdder nodes;
+    private final LongAdder extendedNodes;
+    private final LongAdder betaCutoffs;
+    private final LongAdder firstMoveBetaCutoffs;
+    private final LongAdder futilityPrunes;
+    private final LongAdder razorReductions;
+    private final LongAdder checkExtensions;
+    private final LongAdder singularExtensions;
+    private final LongAdder mateDistancePrunes;
+    private final LongAdder repetitionDraws;
+    private final LongAdder lazyEvaluations;
+    private final LongAdder transpositionProbes;
+    private final LongAdder transpositionHits;
+    private final LongAccumulator maxDepth;
+    private final List<Iteration> iterations;
+
+    public SearchStats() {
+        this.startTime = System.nanoTime();
+        this.endTime = 0;
+        this.nodes = new LongAdder();
+        this.extendedNodes = new LongAdder();
+        this.betaCutoffs = new LongAdder();
+        this.firstMoveBetaCutoffs = new LongAdder();
+        this.futilityPrunes = new LongAdder();
+        this.razorReductions = new LongAdder();
+        this.checkExtensions = new LongAdder();
+        this.singularExtensions = new LongAdder();
+        this.mateDistancePrunes = new LongAdder();
+        this.repetitionDraws = new LongAdder();
+        this.lazyEvaluations = new LongAdder();
+        this.transpositionProbes = new LongAdder();
+        this.transpositionHits = new LongAdder();
+        this.maxDepth = new LongAccumulator(Math::max, 0);
+        this.iterations = new CopyOnWriteArrayList<>();
+    }
+
+    public long getNodes() {
+        return this.nodes.sum();
+    }
+
+    // Behavior: returns the nodes searched past the depth of their iteration, reached through the check, singular
+    //           and frontier capture extensions
+    public long getExtendedNodes() {
+        return this.extendedNodes.sum();
+    }
+
+    public long getBetaCutoffs() {
+        return this.betaCutoffs.sum();
+    }
+
+    // Behavior: returns the share of beta cutoffs produced by the first move searched, a measure of move ordering
+    public double getFirstMoveCutoffRate() {
+        final long cutoffs = getBetaCutoffs();
+        return cutoffs == 0 ? 0.0 : (double) this.firstMoveBetaCutoffs.sum() / cutoffs;
+    }
+
+    // Behavior: returns the number of quiet moves skipped at frontier and pre-frontier nodes
+    public long getFutilityPrunes() {
+        return this.futilityPrunes.sum();
+    }
+
+    public long getRazorReductions() {
+        return this.razorReductions.sum();
+    }
+
+    public long getCheckExtensions() {
+        return this.checkExtensions.sum();
+    }
+
+    public long getSingularExtensions() {
+        return this.singularExtensions.sum();
+    }
+
+    // Behavior: returns the number of nodes cut because no line through them could beat a mate already in hand
+    public long getMateDistancePrunes() {
+        return this.mateDistancePrunes.sum();
+    }
+
+    // Behavior: returns the number of nodes scored as a draw by repetition or by the fifty move rule
+    public long getRepetitionDraws() {
+        return this.repetitionDraws.sum();
+    }
+
+    // Behavior: returns the number of leaves scored by a bound from the evaluator's cheap terms alone
+    public long getLazyEvaluations() {
+        return this.lazyEvaluations.sum();
+    }
+
+    public long getTranspositionProbes() {
+        return this.transpositionProbes.sum();
+    }
+
+    public long getTranspositionHits() {
+        return this.transpositionHits.sum();
+    }
+
+    // Behavior: returns the deepest ply reached, including extensions
+    public int getMaxDepth() {
+        return (int) this.maxDepth.get();
+    }
+
+    public long getElapsedMillis() {
+        final long end = this.endTime != 0 ? this.endTime : System.nanoTime();
+        return (end - this.startTime) / NANOS_PER_MILLI;
+    }
+
+    public long getNodesPerSecond() {
+        final long elapsed = getElapsedMillis();
+        return elapsed == 0 ? getNodes() * 1000 : (getNodes() * 1000) / elapsed;
+    }
+
+    // Behavior: returns the growth in nodes between the last two completed iterations
+    public double getEffectiveBranchingFactor() {
+        final int size = this.iterations.size();
+        if (size < 2 || this.iterations.get(size - 2).getNodes() == 0) {
+            return 0.0;
+        }
+        return (double) this.iterations.get(size - 1).getNodes() / this.iterations.get(size - 2).getNodes();
+    }
+
+    public List<Iteration> getIterations() {
+        return ImmutableList.copyOf(this.iterations);
+    }
+
+    void add(final long nodes,
+             final long extendedNodes,
+             final long betaCutoffs,
+             final long firstMoveBetaCutoffs,
+             final int maxDepth) {
+        this.nodes.add(nodes);
+        this.extendedNodes.add(extendedNodes);
+        this.betaCutoffs.add(betaCutoffs);
+        this.firstMoveBetaCutoffs.add(firstMoveBetaCutoffs);
+        this.maxDepth.accumulate(maxDepth);
+    }
+
+    void addPruning(final long futilityPrunes,
+                    final long razorReductions) {
+        this.futilityPrunes.add(futilityPrunes);
+        this.razorReductions.add(razorReductions);
+    }
+
+    void addExtensions(final long checkExtensions,
+                       final long singularExtensions) {
+        this.checkExtensions.add(checkExtensions);
+        this.singularExtensions.add(singularExtensions);
+    }
+
+    void addMateDistancePrunes(final long mateDistancePrunes) {
+        this.mateDistancePrunes.add(mateDistancePrunes);
+    }
+
+    void addRepetitionDraws(final long repetitionDraws) {
+        this.repetitionDraws.add(repetitionDraws);
+    }
+
+    void addLazyEvaluations(final long lazyEvaluations) {
+        this.lazyEvaluations.add(lazyEvaluations);
+    }
+
+    void addTranspositionProbes(final long probes,
+                                final long hits) {
+        this.transpositionProbes.add(probes);
+        this.transpositionHits.add(hits);
+    }
+
+    void completeIteration(final int depth,
+                           final long iterationNodes,
+                           final long iterationMillis) {
+        this.iterations.add(new Iteration(depth, iterationNodes, iterationMillis));
+    }
+
+    void finish() {
+        this.endTime = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes = %d (extended: %d), nps = %d, ebf = %.2f, first move cutoffs = %.1f%%, " +
+                        "futility prunes = %d, razor reductions = %d, extensions = %d check / %d singular, " +
+                        "mate distance prunes = %d, repetition draws = %d, lazy evals = %d, tt = %d/%d, max depth = %d, time = %d ms",
+                getNodes(), getExtendedNodes(), getNodesPerSecond(), getEffectiveBranchingFactor(),
+                100 * getFirstMoveCutoffRate(), getFutilityPrunes(), getRazorReductions(), getCheckExtensions(), getSingularExtensions(),
+                getMateDistancePrunes(), getRepetitionDraws(), getLazyEvaluations(), getTranspositionHits(), getTranspositionProbes(), getMaxDepth(),
+                getElapsedMillis());
+    }
+
+    public static final class Iteration {
+
+        private final int depth;
+        private final long nodes;
+        private final long millis;
+
+        Iteration(final int depth,
+                  final long nodes,
+                  final long millis) {
+            this.depth = depth;
+            this.nodes = nodes;
+            this.millis = millis;
+        }
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public long getNodes() {
+            return this.nodes;
+        }
+
+        public long getMillis() {
+            return this.millis;
+        }
+
+        @Override
+        public String toString() {
+            return "depth " + this.depth + ": " + this.nodes + " nodes in " + this.millis + " ms";
+        }
+    }
+}
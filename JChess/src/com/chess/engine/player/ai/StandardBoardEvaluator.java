@@ -1,33 +1,107 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.TaperedScore;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
 
-import static com.chess.engine.pieces.Piece.PieceType.BISHOP;
-
 public final class StandardBoardEvaluator implements BoardEvaluator {
 
     private static final int CHECK_MATE_BONUS = 10000;
-    private static final int CHECK_BONUS = 45;
-    private static final int CASTLE_BONUS = 25;
-    private static final int MOBILITY_MULTIPLIER = 5;
-    private static final int ATTACK_MULTIPLIER = 1;
-    private final static int TWO_BISHOPS_BONUS = 25;
+    static final int CHECK_BONUS = 45;
+    static final int CASTLE_BONUS = 25;
+    static final int MOBILITY_MULTIPLIER = 5;
+    static final int ATTACK_MULTIPLIER = 1;
+    final static int TWO_BISHOPS_BONUS = 25;
+    // how far attacks and king safety together are taken to move the score away from the other terms, more than
+    // they do in all but about one in 1000 positions from master games
+    static final int LAZY_MARGIN = 300;
+    // with fewer pieces the kings come forward, and a king being the closest attacker swings the king safety term
+    // by a hundred a square
+    private static final int LAZY_MIN_PIECES = 17;
     private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator();
+    private static final StandardBoardEvaluator ATTACK_SET_INSTANCE = new StandardBoardEvaluator(true);
+
+    private final boolean attackSets;
+    // where every term of every evaluation is timed and recorded, or null when not profiling
+    private final EvalBreakdown profile;
 
     public StandardBoardEvaluator() {
+        this(false, null);
+    }
+
+    private StandardBoardEvaluator(final boolean attackSets) {
+        this(attackSets, null);
+    }
+
+    private StandardBoardEvaluator(final boolean attackSets,
+                                   final EvalBreakdown profile) {
+        this.attackSets = attackSets;
+        this.profile = profile;
     }
 
     public static StandardBoardEvaluator get() {
         return INSTANCE;
     }
 
+    // Return: the evaluator that reads mobility, attacks and king safety off AttackSets instead of walking the
+    //         players' move lists, adding the king zone attack penalty to the king tropism. Its mobility counts
+    //         neither castling nor en passant.
+    public static StandardBoardEvaluator withAttackSets() {
+        return ATTACK_SET_INSTANCE;
+    }
+
+    // Return: an evaluator scoring like get() that times each term of every evaluation, lazy ones included, and
+    //         records it in the given breakdown. Handed to a search it profiles the whole search; the clock
+    //         reads slow every evaluation down.
+    public static StandardBoardEvaluator profiling(final EvalBreakdown profile) {
+        return new StandardBoardEvaluator(false, profile);
+    }
+
+    // Return: the terms of the board's evaluation for each side with what they cost, their shares adding up to
+    //         evaluate(board, depth) on the move-list path
+    public static EvalBreakdown breakdown(final Board board,
+                                          final int depth) {
+        final EvalBreakdown breakdown = new EvalBreakdown();
+        breakdown.addEvaluation();
+        scorePlayer(board.whitePlayer(), depth, null, breakdown);
+        scorePlayer(board.blackPlayer(), depth, null, breakdown);
+        return breakdown;
+    }
+
     @Override
     public int evaluate(Board board,
                         int depth) {
-        return scorePlayer(board.whitePlayer(), depth) - scorePlayer(board.blackPlayer(), depth);
+        if (this.profile != null) {
+            this.profile.addEvaluation();
+        }
+        final AttackSets sets = this.attackSets ? new AttackSets(board) : null;
+        return scorePlayer(board.whitePlayer(), depth, sets, this.profile) -
+                scorePlayer(board.blackPlayer(), depth, sets, this.profile);
+    }
+
+    // Return: a bound from every term but attacks and king safety when they put the score more than LAZY_MARGIN
+    //         past the window, or UNDECIDED. A side to move in check may be mated and an endgame's king safety
+    //         is not bounded by the margin, both are always evaluated in full.
+    @Override
+    public int lazyBound(final Board board,
+                         final int depth,
+                         final int alpha,
+                         final int beta) {
+        if (board.currentPlayer().isInCheck() ||
+                board.getWhitePieces().size() + board.getBlackPieces().size() < LAZY_MIN_PIECES) {
+            return UNDECIDED;
+        }
+        final int cheapScore = cheapTerms(board.whitePlayer(), this.profile) - cheapTerms(board.blackPlayer(), this.profile);
+        if (cheapScore + LAZY_MARGIN <= alpha) {
+            return cheapScore + LAZY_MARGIN;
+        }
+        if (cheapScore - LAZY_MARGIN >= beta) {
+            return cheapScore - LAZY_MARGIN;
+        }
+        return UNDECIDED;
     }
 
     public String evaluationDetails(final Board board, final int depth) {
@@ -48,15 +122,58 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                         "Final Score = " + evaluate(board, depth);
     }
 
-    private int scorePlayer(final Player player,
-                            final int depth) {
-        return mobility(player) +
-                kingThreats(player, depth) +
-                attacks(player) +
-                castle(player) +
-                pieceEvaluations(player) +
-                pawnStructure(player) +
-                kingSafety(player);
+    // Behavior: scores the player term by term, reading mobility, attacks and king safety off the attack sets
+    //           when there are any, and times and records each term when there is a profile
+    private static int scorePlayer(final Player player,
+                                   final int depth,
+                                   final AttackSets sets,
+                                   final EvalBreakdown profile) {
+        final Alliance alliance = player.getAlliance();
+        long start = profile != null ? System.nanoTime() : 0;
+        final int mobility = sets != null ? mobility(sets, alliance, player.getOpponent().getAlliance()) : mobility(player);
+        start = record(profile, EvalBreakdown.Term.MOBILITY, alliance, mobility, start);
+        final int kingThreats = kingThreats(player, depth);
+        start = record(profile, EvalBreakdown.Term.KING_THREATS, alliance, kingThreats, start);
+        final int attacks = sets != null ? sets.getFavourableAttacks(alliance) * ATTACK_MULTIPLIER : attacks(player);
+        start = record(profile, EvalBreakdown.Term.ATTACKS, alliance, attacks, start);
+        final int castle = castle(player);
+        start = record(profile, EvalBreakdown.Term.CASTLE, alliance, castle, start);
+        final int pieceEvaluations = pieceEvaluations(player);
+        start = record(profile, EvalBreakdown.Term.PIECE_EVALUATIONS, alliance, pieceEvaluations, start);
+        final int pawnStructure = pawnStructure(player);
+        start = record(profile, EvalBreakdown.Term.PAWN_STRUCTURE, alliance, pawnStructure, start);
+        final int kingSafety = sets != null ? kingSafety(sets, alliance) : kingSafety(player);
+        record(profile, EvalBreakdown.Term.KING_SAFETY, alliance, kingSafety, start);
+        return mobility + kingThreats + attacks + castle + pieceEvaluations + pawnStructure + kingSafety;
+    }
+
+    // Return: the terms read off the board's running sums, the pawn hash table and the sizes of the move lists,
+    //         without walking any moves. No checkmate is looked for, the side to move is not in check. A profile
+    //         records the check bonus under kingThreats.
+    private static int cheapTerms(final Player player,
+                                  final EvalBreakdown profile) {
+        final Alliance alliance = player.getAlliance();
+        long start = profile != null ? System.nanoTime() : 0;
+        final int mobility = mobility(player);
+        start = record(profile, EvalBreakdown.Term.MOBILITY, alliance, mobility, start);
+        final int check = check(player);
+        start = record(profile, EvalBreakdown.Term.KING_THREATS, alliance, check, start);
+        final int castle = castle(player);
+        start = record(profile, EvalBreakdown.Term.CASTLE, alliance, castle, start);
+        final int pieceEvaluations = pieceEvaluations(player);
+        start = record(profile, EvalBreakdown.Term.PIECE_EVALUATIONS, alliance, pieceEvaluations, start);
+        final int pawnStructure = pawnStructure(player);
+        record(profile, EvalBreakdown.Term.PAWN_STRUCTURE, alliance, pawnStructure, start);
+        return mobility + check + castle + pieceEvaluations + pawnStructure;
+    }
+
+    // Return: the start of the next term, read off the clock only when there is a profile to record the term in
+    private static long record(final EvalBreakdown profile,
+                               final EvalBreakdown.Term term,
+                               final Alliance alliance,
+                               final int score,
+                               final long start) {
+        return profile != null ? profile.record(term, alliance, score, start) : start;
     }
 
     private static int kingThreats(final Player player,
@@ -91,6 +208,12 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return MOBILITY_MULTIPLIER * mobilityRatio(player);
     }
 
+    private static int mobility(final AttackSets sets,
+                                final Alliance alliance,
+                                final Alliance opponent) {
+        return MOBILITY_MULTIPLIER * (int) ((sets.getMobility(alliance) * 10.0f) / Math.max(1, sets.getMobility(opponent)));
+    }
+
     private static int mobilityRatio(final Player player) {
         return (int)((player.getLegalMoves().size() * 10.0f) / player.getOpponent().getLegalMoves().size());
     }
@@ -103,20 +226,24 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
         return PawnStructureAnalyzer.get().pawnStructureScore(player);
     }
 
+    // Behavior: blends the side's midgame and endgame piece square scores by how much material is left, so a
+    //           king walks to the centre and passed pawns gain weight as the pieces come off
     private static int pieceEvaluations(final Player player) {
-        int pieceValuationScore = 0;
-        int numBishops = 0;
-        for (final Piece piece : player.getActivePieces()) {
-            pieceValuationScore += piece.getPieceValue() + piece.locationBonus();
-            if(piece.getPieceType() == BISHOP) {
-                numBishops++;
-            }
-        }
-        return pieceValuationScore + (numBishops == 2 ? TWO_BISHOPS_BONUS : 0);
+        final Board board = player.getBoard();
+        final Alliance alliance = player.getAlliance();
+        return TaperedScore.blend(board.getPieceSquareScore(alliance), board.getPhase()) +
+                (board.getBishopCount(alliance) == 2 ? TWO_BISHOPS_BONUS : 0);
+    }
+
+    private static int kingSafety(final AttackSets sets,
+                                  final Alliance alliance) {
+        final Piece closestAttacker = sets.getClosestAttacker(alliance);
+        final int tropism = closestAttacker == null ? 0 :
+                (closestAttacker.getPieceValue() / 100) * sets.getClosestAttackerDistance(alliance);
+        return tropism + KingSafetyAnalyzer.get().kingZoneSafety(sets, alliance);
     }
 
     private static int kingSafety(final Player player) {
-        final KingSafetyAnalyzer.KingDistance kingDistance = KingSafetyAnalyzer.get().calculateKingTropism(player);
-        return ((kingDistance.getEnemyPiece().getPieceValue() / 100) * kingDistance.getDistance());
+        return KingSafetyAnalyzer.get().kingTropism(player);
     }
 }
@@ -0,0 +1,168 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+// This class computes the static exchange evaluation of a capture: the material the side to move ends up with
+// after both sides keep recapturing on the destination square with their least valuable attacker, each side
+// free to stop when recapturing would lose. Attackers are found by scanning out from the square, so pieces
+// that already took part uncover the sliders behind them.
+public final class StaticExchange {
+
+    private static final int[][] DIAGONALS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[][] ORTHOGONALS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] KNIGHT_JUMPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    static final int MAX_EXCHANGES = 32;
+
+    private StaticExchange() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    // Return: the material won by the capture, negative if it loses material and 0 for a non capture
+    public static int evaluate(final Move move) {
+        return evaluate(move, new boolean[BoardUtils.NUM_TILES], new int[MAX_EXCHANGES]);
+    }
+
+    // Behavior: evaluates the capture in the caller's scratch arrays, so that the search allocates nothing
+    // Parameter:
+    //      removed: NUM_TILES entries, overwritten
+    //      gain: MAX_EXCHANGES entries, overwritten
+    static int evaluate(final Move move,
+                        final boolean[] removed,
+                        final int[] gain) {
+        if (!move.isAttack()) {
+            return 0;
+        }
+        final Board board = move.getBoard();
+        final int target = move.getDestinationCoordinate();
+        Arrays.fill(removed, false);
+        removed[move.getCurrentCoordinate()] = true;
+        // en passant takes a pawn that is not on the destination square
+        removed[move.getAttackedPiece().getPiecePosition()] = true;
+        gain[0] = move.getAttackedPiece().getPieceValue();
+        int occupantValue = move.getMovedPiece().getPieceValue();
+        if (move instanceof Move.PawnPromotion) {
+            gain[0] += Piece.PieceType.QUEEN.getPieceValue() - occupantValue;
+            occupantValue = Piece.PieceType.QUEEN.getPieceValue();
+        }
+        boolean white = !move.getMovedPiece().getPieceAlliance().isWhite();
+        int exchanges = 0;
+        while (exchanges + 1 < MAX_EXCHANGES) {
+            final int attacker = leastValuableAttacker(board, target, white ? Alliance.WHITE : Alliance.BLACK, removed);
+            if (attacker < 0) {
+                break;
+            }
+            exchanges++;
+            gain[exchanges] = occupantValue - gain[exchanges - 1];
+            if (Math.max(-gain[exchanges - 1], gain[exchanges]) < 0) {
+                break;
+            }
+            occupantValue = board.getPiece(attacker).getPieceValue();
+            removed[attacker] = true;
+            white = !white;
+        }
+        while (exchanges > 0) {
+            gain[exchanges - 1] = -Math.max(-gain[exchanges - 1], gain[exchanges]);
+            exchanges--;
+        }
+        return gain[0];
+    }
+
+    // Return: the coordinate of the cheapest piece of the alliance attacking the target, or -1 if there is none
+    private static int leastValuableAttacker(final Board board,
+                                             final int target,
+                                             final Alliance alliance,
+                                             final boolean[] removed) {
+        final int row = target / 8;
+        final int column = target % 8;
+        // pawns attack towards the opponent, so an attacking pawn sits one row behind the target
+        final int pawnRow = alliance.isWhite() ? row + 1 : row - 1;
+        int attacker = find(board, pawnRow, column - 1, alliance, Piece.PieceType.PAWN, removed);
+        if (attacker < 0) {
+            attacker = find(board, pawnRow, column + 1, alliance, Piece.PieceType.PAWN, removed);
+        }
+        if (attacker < 0) {
+            attacker = step(board, row, column, KNIGHT_JUMPS, alliance, Piece.PieceType.KNIGHT, removed);
+        }
+        if (attacker < 0) {
+            attacker = slide(board, row, column, DIAGONALS, alliance, Piece.PieceType.BISHOP, removed);
+        }
+        if (attacker < 0) {
+            attacker = slide(board, row, column, ORTHOGONALS, alliance, Piece.PieceType.ROOK, removed);
+        }
+        if (attacker < 0) {
+            attacker = slide(board, row, column, DIAGONALS, alliance, Piece.PieceType.QUEEN, removed);
+        }
+        if (attacker < 0) {
+            attacker = slide(board, row, column, ORTHOGONALS, alliance, Piece.PieceType.QUEEN, removed);
+        }
+        if (attacker < 0) {
+            attacker = step(board, row, column, KING_STEPS, alliance, Piece.PieceType.KING, removed);
+        }
+        return attacker;
+    }
+
+    private static int step(final Board board,
+                            final int row,
+                            final int column,
+                            final int[][] offsets,
+                            final Alliance alliance,
+                            final Piece.PieceType type,
+                            final boolean[] removed) {
+        for (final int[] offset : offsets) {
+            final int attacker = find(board, row + offset[0], column + offset[1], alliance, type, removed);
+            if (attacker >= 0) {
+                return attacker;
+            }
+        }
+        return -1;
+    }
+
+    // Behavior: follows each ray to its first piece still on the board
+    private static int slide(final Board board,
+                             final int row,
+                             final int column,
+                             final int[][] directions,
+                             final Alliance alliance,
+                             final Piece.PieceType type,
+                             final boolean[] removed) {
+        for (final int[] direction : directions) {
+            int r = row + direction[0];
+            int c = column + direction[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                final int coordinate = r * 8 + c;
+                final Piece piece = board.getPiece(coordinate);
+                if (piece != null && !removed[coordinate]) {
+                    if (piece.getPieceAlliance() == alliance && piece.getPieceType() == type) {
+                        return coordinate;
+                    }
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return -1;
+    }
+
+    private static int find(final Board board,
+                            final int row,
+                            final int column,
+                            final Alliance alliance,
+                            final Piece.PieceType type,
+                            final boolean[] removed) {
+        if (row < 0 || row >= 8 || column < 0 || column >= 8) {
+            return -1;
+        }
+        final int coordinate = row * 8 + column;
+        final Piece piece = board.getPiece(coordinate);
+        return piece != null && !removed[coordinate] && piece.getPieceAlliance() == alliance &&
+                piece.getPieceType() == type ? coordinate : -1;
+    }
+}
@@ -6,34 +6,42 @@ import com.chess.engine.board.Move;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.player.Player;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Ordering;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.Observable;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.chess.engine.board.BoardUtils.mvvlva;
 import static com.chess.engine.board.Move.MoveFactory;
 
-public class StockAlphaBeta extends Observable implements MoveStrategy {
+public class StockAlphaBeta implements MoveStrategy {
 
     private final BoardEvaluator evaluator;
+    private final SearchConfiguration configuration;
+    private final TranspositionTable transpositionTable;
     private final int searchDepth;
-    private long boardsEvaluated;
-    private int quiescenceCount;
+    // the threads splitting the root, kept for every search of this strategy, or null when searching alone.
+    // Its threads are daemons and end on their own once the pool has been idle for a while.
+    private final ForkJoinPool pool;
+    private final LongAdder boardsEvaluated;
+    private final SearchEventPublisher searchEvents;
+    private volatile SearchStats searchStats;
+    private volatile boolean consoleLogging;
     private static final int MAX_QUIESCENCE = 5000 * 5;
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int MAX_PLY = SearchLimits.MAX_SEARCH_DEPTH;
+    private static final int FIFTY_MOVE_RULE_PLIES = 100;
+    private static final int HISTORY_LIMIT = 1 << 20;
 
     private enum MoveSorter {
 
-        STANDARD {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves) {
-                return Ordering.from((Comparator<Move>) (move1, move2) -> ComparisonChain.start()
-                        .compareTrueFirst(move1.isCastlingMove(), move2.isCastlingMove())
-                        .compare(mvvlva(move2), mvvlva(move1))
-                        .result()).immutableSortedCopy(moves);
-            }
-        },
         EXPENSIVE {
             @Override
             Collection<Move> sort(final Collection<Move> moves) {
@@ -50,10 +58,42 @@ public class StockAlphaBeta extends Observable implements MoveStrategy {
 
 
     public StockAlphaBeta(final int searchDepth) {
-        this.evaluator = StandardBoardEvaluator.get();
+        this(searchDepth, 1);
+    }
+
+    // Behavior: constructs a searcher that splits the root moves over the given number of threads. The first
+    //           root move is always searched alone to establish a bound (Young Brothers Wait), the remaining
+    //           root moves are then searched concurrently against a shared alpha.
+    public StockAlphaBeta(final int searchDepth,
+                          final int parallelism) {
+        this(searchDepth, parallelism, SearchConfiguration.DEFAULT);
+    }
+
+    public StockAlphaBeta(final int searchDepth,
+                          final int parallelism,
+                          final SearchConfiguration configuration) {
+        this(searchDepth, parallelism, configuration, StandardBoardEvaluator.get());
+    }
+
+    // Behavior: constructs a searcher scoring positions with the given evaluator, behind an evaluation cache
+    //           unless the configuration turns it off
+    public StockAlphaBeta(final int searchDepth,
+                          final int parallelism,
+                          final SearchConfiguration configuration,
+                          final BoardEvaluator evaluator) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        }
+        this.evaluator = configuration.getEvaluationCacheSize() > 0 ?
+                new CachingBoardEvaluator(evaluator, configuration.getEvaluationCacheSize()) : evaluator;
+        this.configuration = configuration;
+        this.transpositionTable = new TranspositionTable(configuration.getTranspositionTableSize());
         this.searchDepth = searchDepth;
-        this.boardsEvaluated = 0;
-        this.quiescenceCount = 0;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.boardsEvaluated = new LongAdder();
+        this.searchEvents = new SearchEventPublisher();
+        this.searchStats = new SearchStats();
+        this.consoleLogging = false;
     }
 
     @Override
@@ -63,148 +103,728 @@ public class StockAlphaBeta extends Observable implements MoveStrategy {
 
     @Override
     public long getNumBoardsEvaluated() {
-        return this.boardsEvaluated;
+        return this.boardsEvaluated.sum();
+    }
+
+    // Behavior: returns the evaluator the search scores positions with, a CachingBoardEvaluator holding the hit
+    //           and miss counts unless the configuration turned the cache off
+    public BoardEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    // Behavior: returns the statistics of the current search, or of the last one if no search is running
+    public SearchStats getSearchStats() {
+        return this.searchStats;
+    }
+
+    // Behavior: returns the stream of events of every search run by this strategy. Subscribers are called on
+    //           their own threads and events are dropped for a subscriber that falls behind.
+    public SearchEventPublisher getSearchEvents() {
+        return this.searchEvents;
+    }
+
+    // Behavior: turns the per root move progress lines on the console on or off (off by default)
+    public void setConsoleLogging(final boolean consoleLogging) {
+        this.consoleLogging = consoleLogging;
     }
 
     @Override
     public Move execute(final Board board) {
-        final long startTime = System.currentTimeMillis();
-        final Player currentPlayer = board.currentPlayer();
-        Move bestMove = MoveFactory.getNullMove();
-        int highestSeenValue = Integer.MIN_VALUE;
-        int lowestSeenValue = Integer.MAX_VALUE;
-        int currentValue;
-        System.out.println(board.currentPlayer() + " THINKING with depth = " + this.searchDepth);
-        int moveCounter = 1;
-        int numMoves = board.currentPlayer().getLegalMoves().size();
-        for (final Move move : MoveSorter.EXPENSIVE.sort((board.currentPlayer().getLegalMoves()))) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            this.quiescenceCount = 0;
-            final String s;
-            if (moveTransition.getMoveStatus().isDone()) {
-                final long candidateMoveStartTime = System.nanoTime();
-                currentValue = currentPlayer.getAlliance().isWhite() ?
-                        min(moveTransition.getTransitionBoard(), this.searchDepth - 1, highestSeenValue, lowestSeenValue) :
-                        max(moveTransition.getTransitionBoard(), this.searchDepth - 1, highestSeenValue, lowestSeenValue);
-                if (currentPlayer.getAlliance().isWhite() && currentValue > highestSeenValue) {
-                    highestSeenValue = currentValue;
-                    bestMove = move;
-                    if(moveTransition.getTransitionBoard().blackPlayer().isInCheckMate()) {
+        return execute(board, SearchLimits.ofDepth(this.searchDepth));
+    }
+
+    @Override
+    public Move execute(final Board board,
+                        final SearchController controller) {
+        return search(board, controller).getBestMove();
+    }
+
+    // Behavior: runs an iterative deepening search until the depth limit, the soft deadline or a stop request.
+    //           Each iteration searches the previous iteration's best move first.
+    // Return: the best move of the deepest iteration that produced one, with its score and the search statistics
+    public SearchResult search(final Board board,
+                               final SearchController controller) {
+        return runSearch(board, controller, 1).result();
+    }
+
+    // Behavior: like search, but each iteration searches the root numLines times, every pass excluding the root
+    //           moves found by the passes before it. The passes share the transposition table, so the later
+    //           ones mostly replay positions the first pass already scored.
+    // Return: the best numLines root moves of the deepest iteration, ranked, with their scores and lines
+    public MultiPvResult searchMultiPv(final Board board,
+                                       final SearchController controller,
+                                       final int numLines) {
+        if (numLines < 1) {
+            throw new IllegalArgumentException("number of lines must be at least 1, was " + numLines);
+        }
+        final RootSearch rootSearch = runSearch(board, controller, numLines);
+        final List<MultiPvResult.Line> lines = new ArrayList<>();
+        for (final RootScore rootScore : rootSearch.lines) {
+            lines.add(new MultiPvResult.Line(rootScore.move, rootScore.value, rootScore.line));
+        }
+        return new MultiPvResult(rootSearch.result(), lines);
+    }
+
+    private RootSearch runSearch(final Board board,
+                                 final SearchController controller,
+                                 final int numLines) {
+        controller.start();
+        final SearchStats stats = new SearchStats();
+        this.searchStats = stats;
+        this.transpositionTable.newSearch();
+        log(board.currentPlayer() + " THINKING with " + controller.getLimits() +
+                (numLines > 1 ? ", " + numLines + " lines" : ""));
+        final RootSearch rootSearch = new RootSearch(board, controller, stats);
+        try {
+            rootSearch.iterate(controller.getLimits().getDepth(), numLines);
+        } finally {
+            rootSearch.close();
+            stats.finish();
+        }
+        final SearchResult result = rootSearch.result();
+        log(board.currentPlayer() + " SELECTS " + result);
+        this.searchEvents.publish(new SearchEvent.BestMove(result));
+        return rootSearch;
+    }
+
+    private void log(final String s) {
+        if (this.consoleLogging) {
+            System.out.println(s);
+        }
+    }
+
+    private static RootScore offer(final AtomicReference<RootScore> best,
+                                   final RootScore candidate) {
+        while (true) {
+            final RootScore current = best.get();
+            if (candidate.value <= current.value) {
+                return current;
+            }
+            if (best.compareAndSet(current, candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static String score(final Player currentPlayer,
+                                final int value) {
+        if (MateScores.isMate(value)) {
+            return "[" + MateScores.format(value) + "]";
+        }
+        return "[score: " + (currentPlayer.getAlliance().isWhite() ? value : -value) + "]";
+    }
+
+    private static int sideToMoveSign(final Board board) {
+        return board.currentPlayer().getAlliance().isWhite() ? 1 : -1;
+    }
+
+    private static int allianceIndex(final Board board) {
+        return board.currentPlayer().getAlliance().isWhite() ? 0 : 1;
+    }
+
+    private static String calculateTimeTaken(final long start, final long end) {
+        final long timeTaken = (end - start) / 1000000;
+        return timeTaken + " ms";
+    }
+
+    private static final class RootScore {
+
+        static final RootScore INITIAL = new RootScore(MoveFactory.getNullMove(), -INFINITY, false,
+                ImmutableList.of());
+
+        final Move move;
+        final int value;
+        final boolean deliversCheckMate;
+        final List<Move> line;
+
+        RootScore(final Move move,
+                  final int value,
+                  final boolean deliversCheckMate,
+                  final List<Move> line) {
+            this.move = move;
+            this.value = value;
+            this.deliversCheckMate = deliversCheckMate;
+            this.line = line;
+        }
+
+        boolean isCheckMate() {
+            return this.deliversCheckMate;
+        }
+
+        // Behavior: a mate found within the iteration's depth cannot be beaten by searching deeper
+        boolean isMateWithin(final int depth) {
+            return this.value > 0 && MateScores.isMate(this.value) && MateScores.matePlies(this.value) <= depth;
+        }
+    }
+
+    // This class holds the state of one call to search: the root moves in their current order, the root moves
+    // already taken by a better line of the running iteration and the ranked lines of the deepest iteration so
+    // far.
+    private final class RootSearch {
+
+        private final Board board;
+        private final SearchController controller;
+        private final SearchStats stats;
+        private final List<Move> rootMoves;
+        private final List<Move> excludedMoves;
+        private final PositionHistory history;
+        private final ThreadLocal<SearchWorker> workers;
+        private RootScore bestScore;
+        private List<RootScore> lines;
+        private int completedDepth;
+
+        RootSearch(final Board board,
+                   final SearchController controller,
+                   final SearchStats stats) {
+            this.board = board;
+            this.controller = controller;
+            this.stats = stats;
+            this.rootMoves = new ArrayList<>(MoveSorter.EXPENSIVE.sort(board.currentPlayer().getLegalMoves()));
+            this.excludedMoves = new ArrayList<>();
+            this.history = PositionHistory.of(board);
+            this.workers = ThreadLocal.withInitial(() -> new SearchWorker(controller, stats, this.history));
+            this.bestScore = RootScore.INITIAL;
+            this.lines = ImmutableList.of();
+            this.completedDepth = 0;
+        }
+
+        // Behavior: deepens until maxDepth, each iteration finding up to numLines root moves one pass at a time.
+        //           The next iteration searches the lines found in their ranked order first.
+        void iterate(final int maxDepth,
+                     final int numLines) {
+            for (int depth = 1; depth <= maxDepth && !this.controller.isStopped(); depth++) {
+                final long iterationStart = System.currentTimeMillis();
+                final long nodesBefore = this.stats.getNodes();
+                final List<RootScore> iterationLines = new ArrayList<>();
+                this.excludedMoves.clear();
+                while (iterationLines.size() < numLines && !this.controller.isStopped()) {
+                    final RootScore lineBest = searchIteration(depth);
+                    if (lineBest == RootScore.INITIAL) {
                         break;
                     }
+                    if (iterationLines.isEmpty()) {
+                        this.controller.updateBestMove(lineBest.move);
+                    }
+                    iterationLines.add(lineBest);
+                    this.excludedMoves.add(lineBest.move);
                 }
-                else if (currentPlayer.getAlliance().isBlack() && currentValue < lowestSeenValue) {
-                    lowestSeenValue = currentValue;
-                    bestMove = move;
-                    if(moveTransition.getTransitionBoard().whitePlayer().isInCheckMate()) {
+                if (!iterationLines.isEmpty()) {
+                    this.bestScore = iterationLines.get(0);
+                }
+                if (this.controller.isStopped()) {
+                    if (this.lines.isEmpty()) {
+                        this.lines = iterationLines;
+                    }
+                    break;
+                }
+                this.completedDepth = depth;
+                this.lines = iterationLines;
+                final long iterationNodes = this.stats.getNodes() - nodesBefore;
+                this.stats.completeIteration(depth, iterationNodes, System.currentTimeMillis() - iterationStart);
+                searchEvents.publish(new SearchEvent.IterationComplete(depth, this.bestScore.value,
+                        this.controller.getElapsedMillis(), this.bestScore.move, iterationNodes, this.stats.getNodes(),
+                        this.bestScore.line));
+                // a shorter mate scores higher, so once the weakest line mates within the depth they all do
+                if (iterationLines.isEmpty() || iterationLines.get(iterationLines.size() - 1).isMateWithin(depth) ||
+                        this.controller.isSoftDeadlineReached()) {
+                    break;
+                }
+                for (int i = iterationLines.size() - 1; i >= 0; i--) {
+                    this.rootMoves.remove(iterationLines.get(i).move);
+                    this.rootMoves.add(0, iterationLines.get(i).move);
+                }
+            }
+        }
+
+        SearchResult result() {
+            final Move bestMove = this.controller.getBestMove() != null ? this.controller.getBestMove() : firstLegalMove();
+            final List<Move> line = this.bestScore.move.equals(bestMove) ? this.bestScore.line : ImmutableList.of(bestMove);
+            return new SearchResult(bestMove, this.bestScore.value, line, this.completedDepth, this.stats);
+        }
+
+        void close() {
+            this.workers.remove();
+        }
+
+        // Behavior: searches every root move not taken by an earlier pass of the iteration
+        private RootScore searchIteration(final int depth) {
+            final AtomicReference<RootScore> best = new AtomicReference<>(RootScore.INITIAL);
+            final List<Move> candidates = new ArrayList<>(this.rootMoves);
+            candidates.removeAll(this.excludedMoves);
+            final int numMoves = candidates.size();
+            int moveCounter = 1;
+            try {
+                // in parallel mode only the eldest brother is searched here, the rest wait for its bound
+                while (moveCounter <= numMoves && !best.get().isCheckMate()) {
+                    final boolean searched = searchRootMove(candidates.get(moveCounter - 1), moveCounter, depth, best);
+                    moveCounter++;
+                    if (searched && pool != null) {
                         break;
                     }
                 }
+                if (moveCounter <= numMoves && !best.get().isCheckMate()) {
+                    searchYoungerBrothers(candidates, moveCounter, depth, best);
+                }
+            } catch (final SearchAbortedException e) {
+                // the best move so far has already been published to the controller
+            }
+            return best.get();
+        }
 
-                final String quiescenceInfo = " " + score(currentPlayer, highestSeenValue, lowestSeenValue) + " q: " +this.quiescenceCount;
-                s = "\t" + toString() + "(" +this.searchDepth+ "), m: (" +moveCounter+ "/" +numMoves+ ") " + move + ", best:  " + bestMove
+        private void searchYoungerBrothers(final List<Move> candidates,
+                                           final int firstMoveCounter,
+                                           final int depth,
+                                           final AtomicReference<RootScore> best) {
+            final List<RootMoveTask> tasks = new ArrayList<>();
+            for (int moveCounter = firstMoveCounter; moveCounter <= candidates.size(); moveCounter++) {
+                tasks.add(new RootMoveTask(this, candidates.get(moveCounter - 1), moveCounter, depth, best));
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
 
-                        + quiescenceInfo + ", t: " +calculateTimeTaken(candidateMoveStartTime, System.nanoTime());
-            } else {
-                s = "\t" + toString() + "(" +this.searchDepth + ")" + ", m: (" +moveCounter+ "/" +numMoves+ ") " + move + " is illegal! best: " +bestMove;
+        // Behavior: searches a single root move against the current shared bound and publishes its score
+        // Return: true if the move was legal and searched, false otherwise
+        private boolean searchRootMove(final Move move,
+                                       final int moveCounter,
+                                       final int depth,
+                                       final AtomicReference<RootScore> best) {
+            final Player currentPlayer = this.board.currentPlayer();
+            final MoveTransition moveTransition = currentPlayer.makeMove(move);
+            final boolean searched = moveTransition.getMoveStatus().isDone();
+            if (searched) {
+                final long candidateMoveStartTime = System.nanoTime();
+                final SearchWorker worker = this.workers.get();
+                worker.prepare(depth, this.history);
+                final Board toBoard = moveTransition.getTransitionBoard();
+                final int extensions = worker.isCheckExtended(toBoard, 0) ? 1 : 0;
+                final int currentValue;
+                try {
+                    currentValue = -worker.alphaBeta(toBoard, depth - 1 + extensions, 1, -INFINITY, -best.get().value,
+                            extensions, null);
+                } finally {
+                    worker.flush();
+                }
+                final RootScore candidate = new RootScore(move, currentValue, toBoard.currentPlayer().isInCheckMate(),
+                        worker.principalVariation(move));
+                final RootScore bestScore = offer(best, candidate);
+                // only the first pass competes for the move to play, the later ones rank the runners-up
+                if (bestScore == candidate && this.excludedMoves.isEmpty()) {
+                    this.controller.updateBestMove(candidate.move);
+                    searchEvents.publish(new SearchEvent.PrincipalVariation(depth, candidate.value,
+                            this.controller.getElapsedMillis(), candidate.line));
+                }
+                if (consoleLogging) {
+                    log("\t" + StockAlphaBeta.this + "(" + depth + "), m: (" + moveCounter + "/" + this.rootMoves.size() + ") " +
+                            move + ", best:  " + bestScore.move + " " + score(currentPlayer, bestScore.value) + " q: " +
+                            worker.quiescenceCount + ", t: " + calculateTimeTaken(candidateMoveStartTime, System.nanoTime()));
+                }
+            } else if (consoleLogging) {
+                log("\t" + StockAlphaBeta.this + "(" + depth + ")" + ", m: (" + moveCounter + "/" + this.rootMoves.size() + ") " +
+                        move + " is illegal! best: " + best.get().move);
             }
-            System.out.println(s);
-            setChanged();
-            notifyObservers(s);
-            moveCounter++;
+            return searched;
         }
 
-        final long executionTime = System.currentTimeMillis() - startTime;
-        final String result = board.currentPlayer() + " SELECTS " +bestMove+ " [#boards evaluated = " +this.boardsEvaluated+
-                " time taken = " + executionTime /1000+ " rate = " +(1000 * ((double)this.boardsEvaluated/ executionTime));
-        System.out.printf("%s SELECTS %s [#boards evaluated = %d, time taken = %d ms, rate = %.1f\n", board.currentPlayer(),
-                bestMove, this.boardsEvaluated, executionTime, (1000 * ((double)this.boardsEvaluated/ executionTime)));
-        setChanged();
-        notifyObservers(result);
-        return bestMove;
+        private Move firstLegalMove() {
+            for (final Move move : this.rootMoves) {
+                if (this.board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    return move;
+                }
+            }
+            return MoveFactory.getNullMove();
+        }
     }
 
-    private static String score(final Player currentPlayer,
-                                final int highestSeenValue,
-                                final int lowestSeenValue) {
+    @SuppressWarnings("serial")
+    private static final class RootMoveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
 
-        if(currentPlayer.getAlliance().isWhite()) {
-            return "[score: " +highestSeenValue + "]";
-        } else if(currentPlayer.getAlliance().isBlack()) {
-            return "[score: " +lowestSeenValue+ "]";
+        private final RootSearch rootSearch;
+        private final Move move;
+        private final int moveCounter;
+        private final int depth;
+        private final AtomicReference<RootScore> best;
+
+        RootMoveTask(final RootSearch rootSearch,
+                     final Move move,
+                     final int moveCounter,
+                     final int depth,
+                     final AtomicReference<RootScore> best) {
+            this.rootSearch = rootSearch;
+            this.move = move;
+            this.moveCounter = moveCounter;
+            this.depth = depth;
+            this.best = best;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                this.rootSearch.searchRootMove(this.move, this.moveCounter, this.depth, this.best);
+            } catch (final SearchAbortedException e) {
+                // the controller is stopped, the remaining brothers unwind on their own
+            }
         }
-        throw new RuntimeException("bad bad boy!");
     }
 
-    private int max(final Board board,
-                    final int depth,
-                    final int highest,
-                    final int lowest) {
-        if (depth == 0 || BoardUtils.isEndGame(board)) {
-            this.boardsEvaluated++;
-            return this.evaluator.evaluate(board, depth);
+    // This exception unwinds a search that has been stopped. It is shared and carries no stack trace.
+    private static final class SearchAbortedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        static final SearchAbortedException INSTANCE = new SearchAbortedException();
+
+        private SearchAbortedException() {
+            super("search stopped", null, false, false);
         }
-        int currentHighest = highest;
-        for (final Move move : MoveSorter.STANDARD.sort((board.currentPlayer().getLegalMoves()))) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final Board toBoard = moveTransition.getTransitionBoard();
-                currentHighest = Math.max(currentHighest, min(toBoard,
-                        calculateQuiescenceDepth(toBoard, depth), currentHighest, lowest));
-                if (currentHighest >= lowest) {
-                    return lowest;
-                }
+    }
+
+    // This class holds the state of one root move's search. Scores are relative to the side to move.
+    // Counters are kept locally and flushed into the shared SearchStats at every controller checkpoint.
+    // The principal variation is collected in a triangular table: row ply holds the best line from ply on.
+    // A worker belongs to one thread for a whole search and is prepared again for every root move it searches,
+    // so its tables, its search stack and its quiet move history are allocated once and carried across moves.
+    private final class SearchWorker {
+
+        private final SearchController controller;
+        private final SearchStats stats;
+        private int iterationDepth;
+        private int quiescenceCount;
+        private int nodesSinceCheck;
+        private long nodes;
+        private long extendedNodes;
+        private long betaCutoffs;
+        private long firstMoveBetaCutoffs;
+        private long futilityPrunes;
+        private long razorReductions;
+        private long checkExtensions;
+        private long singularExtensions;
+        private long transpositionProbes;
+        private long transpositionHits;
+        private long mateDistancePrunes;
+        private int maxPly;
+        private long repetitionDraws;
+        private long lazyEvaluations;
+        private final Move[][] pvTable;
+        private final int[] pvLength;
+        private final SearchStack stack;
+        private final int[][] historyScores;
+        private final PositionHistory history;
+
+        SearchWorker(final SearchController controller,
+                     final SearchStats stats,
+                     final PositionHistory rootHistory) {
+            this.controller = controller;
+            this.stats = stats;
+            this.history = rootHistory.copy();
+            this.pvTable = new Move[MAX_PLY][MAX_PLY];
+            this.pvLength = new int[MAX_PLY];
+            this.stack = new SearchStack(MAX_PLY);
+            this.historyScores = new int[2][BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        }
+
+        // Behavior: readies the worker for a root move of the given iteration
+        private void prepare(final int iterationDepth,
+                             final PositionHistory rootHistory) {
+            this.iterationDepth = iterationDepth;
+            this.history.reset(rootHistory);
+            this.quiescenceCount = 0;
+        }
+
+        // Return: the root move followed by the best line found below it
+        private List<Move> principalVariation(final Move rootMove) {
+            final ImmutableList.Builder<Move> line = ImmutableList.builder();
+            line.add(rootMove);
+            for (int i = 1; i < this.pvLength[1]; i++) {
+                line.add(this.pvTable[1][i]);
             }
+            return line.build();
         }
-        return currentHighest;
-    }
 
-    private int min(final Board board,
-                    final int depth,
-                    final int highest,
-                    final int lowest) {
-        if (depth == 0 || BoardUtils.isEndGame(board)) {
-            this.boardsEvaluated++;
-            return this.evaluator.evaluate(board, depth);
+        private void updatePrincipalVariation(final int ply,
+                                              final Move move) {
+            if (ply >= MAX_PLY) {
+                return;
+            }
+            this.pvTable[ply][ply] = move;
+            if (ply + 1 < MAX_PLY) {
+                System.arraycopy(this.pvTable[ply + 1], ply + 1, this.pvTable[ply], ply + 1,
+                        this.pvLength[ply + 1] - ply - 1);
+                this.pvLength[ply] = this.pvLength[ply + 1];
+            } else {
+                this.pvLength[ply] = ply + 1;
+            }
         }
-        int currentLowest = lowest;
-        for (final Move move : MoveSorter.STANDARD.sort((board.currentPlayer().getLegalMoves()))) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final Board toBoard = moveTransition.getTransitionBoard();
-                currentLowest = Math.min(currentLowest, max(toBoard,
-                        calculateQuiescenceDepth(toBoard, depth), highest, currentLowest));
-                if (currentLowest <= highest) {
-                    return highest;
+
+        private int alphaBeta(final Board board,
+                              final int depth,
+                              final int ply,
+                              final int alphaBound,
+                              final int betaBound,
+                              final int extensions,
+                              final Move excludedMove) {
+            this.nodes++;
+            if (ply + depth > this.iterationDepth) {
+                this.extendedNodes++;
+            }
+            this.maxPly = Math.max(this.maxPly, ply);
+            if (++this.nodesSinceCheck >= SearchController.NODES_BETWEEN_CHECKS) {
+                this.nodesSinceCheck = 0;
+                flush();
+                if (this.controller.checkpoint()) {
+                    throw SearchAbortedException.INSTANCE;
+                }
+            }
+            if (ply < MAX_PLY) {
+                this.pvLength[ply] = ply;
+            }
+            if (board.currentPlayer().isInCheckMate()) {
+                return -MateScores.MATE + ply;
+            }
+            if (board.currentPlayer().isInStaleMate()) {
+                return MateScores.DRAW;
+            }
+            final long key = board.getZobristHash();
+            if (board.getHalfmoveClock() >= FIFTY_MOVE_RULE_PLIES ||
+                    this.history.isRepetition(key, board.getHalfmoveClock())) {
+                this.repetitionDraws++;
+                return MateScores.DRAW;
+            }
+            if (depth == 0) {
+                boardsEvaluated.increment();
+                return evaluateLeaf(board, alphaBound, betaBound);
+            }
+            // mate distance pruning: no line from here can mate faster than in one ply or be mated faster than now
+            final int alpha = Math.max(alphaBound, -MateScores.MATE + ply);
+            final int beta = Math.min(betaBound, MateScores.MATE - ply - 1);
+            if (alpha >= beta) {
+                this.mateDistancePrunes++;
+                return alpha;
+            }
+            // the exclusion search of a singular extension must neither read nor overwrite the node's own entry
+            long entry = 0;
+            Move ttMove = null;
+            if (excludedMove == null) {
+                this.transpositionProbes++;
+                entry = transpositionTable.probe(key);
+                if (entry != 0) {
+                    this.transpositionHits++;
+                    ttMove = TranspositionTable.move(entry, board);
+                    if (TranspositionTable.depth(entry) >= depth) {
+                        final int ttScore = MateScores.fromTranspositionTable(TranspositionTable.score(entry), ply);
+                        final int bound = TranspositionTable.bound(entry);
+                        if (bound == TranspositionTable.EXACT) {
+                            if (ttScore > alpha && ttScore < beta && ttMove != null && ply < MAX_PLY) {
+                                this.pvTable[ply][ply] = ttMove;
+                                this.pvLength[ply] = ply + 1;
+                            }
+                            return Math.max(alpha, Math.min(beta, ttScore));
+                        }
+                        if (bound == TranspositionTable.LOWER_BOUND && ttScore >= beta) {
+                            return beta;
+                        }
+                        if (bound == TranspositionTable.UPPER_BOUND && ttScore <= alpha) {
+                            return alpha;
+                        }
+                    }
+                }
+            }
+            final SearchStack.Frame frame = this.stack.frame(ply);
+            int nodeDepth = depth;
+            boolean pruneQuietMoves = false;
+            if (depth <= 3 && (configuration.isFutilityPruning() || configuration.isRazoring()) &&
+                    !board.currentPlayer().isInCheck() && !MateScores.isMate(alpha)) {
+                // the evaluation depth only matters for mated positions, which never get this far
+                if (!frame.hasStaticEval(key)) {
+                    frame.setStaticEval(key, sideToMoveSign(board) * evaluator.evaluate(board, depth));
+                }
+                final int staticEval = frame.getStaticEval();
+                if (depth == 3 && configuration.isRazoring() && staticEval + configuration.getRazorMargin() <= alpha) {
+                    nodeDepth = 2;
+                    this.razorReductions++;
+                }
+                if (nodeDepth <= 2 && configuration.isFutilityPruning()) {
+                    final int margin = nodeDepth == 1 ?
+                            configuration.getFutilityMargin() : configuration.getExtendedFutilityMargin();
+                    pruneQuietMoves = staticEval + margin <= alpha;
+                }
+            }
+            final boolean singular = ttMove != null && isSingular(board, entry, ttMove, nodeDepth, ply, extensions);
+            int currentAlpha = alpha;
+            int movesSearched = 0;
+            Move bestMove = null;
+            this.history.push(key);
+            final MovePicker movePicker = frame.movePicker;
+            movePicker.reset(board, ttMove, frame.killers, this.historyScores[allianceIndex(board)], pruneQuietMoves);
+            for (Move move = movePicker.next(); move != null; move = movePicker.next()) {
+                if (move.equals(excludedMove)) {
+                    continue;
+                }
+                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+                if (moveTransition.getMoveStatus().isDone()) {
+                    final Board toBoard = moveTransition.getTransitionBoard();
+                    movesSearched++;
+                    int childDepth = calculateQuiescenceDepth(toBoard, nodeDepth, extensions);
+                    int childExtensions = childDepth >= nodeDepth ? extensions + 1 : extensions;
+                    if (singular && move == ttMove) {
+                        childDepth++;
+                        childExtensions++;
+                        this.singularExtensions++;
+                    } else if (childDepth < nodeDepth && isCheckExtended(toBoard, extensions)) {
+                        childDepth++;
+                        childExtensions++;
+                    }
+                    final int score = -alphaBeta(toBoard, childDepth, ply + 1, -beta, -currentAlpha,
+                            childExtensions, null);
+                    if (score > currentAlpha) {
+                        currentAlpha = score;
+                        bestMove = move;
+                        updatePrincipalVariation(ply, move);
+                    }
+                    if (currentAlpha >= beta) {
+                        this.betaCutoffs++;
+                        if (movesSearched == 1) {
+                            this.firstMoveBetaCutoffs++;
+                        }
+                        if (MovePicker.isQuiet(move)) {
+                            updateQuietMoveOrdering(board, frame, move, nodeDepth);
+                        }
+                        this.futilityPrunes += movePicker.getSkippedQuiets();
+                        if (excludedMove == null) {
+                            transpositionTable.store(key, depth, MateScores.toTranspositionTable(beta, ply),
+                                    TranspositionTable.LOWER_BOUND, move);
+                        }
+                        this.history.pop();
+                        return beta;
+                    }
                 }
             }
+            this.history.pop();
+            this.futilityPrunes += movePicker.getSkippedQuiets();
+            if (excludedMove == null) {
+                transpositionTable.store(key, depth, MateScores.toTranspositionTable(currentAlpha, ply),
+                        bestMove != null ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND, bestMove);
+            }
+            return currentAlpha;
+        }
+
+        // Behavior: searches every move but the transposition table move at reduced depth with a null window
+        //           just below the stored score. If none of them gets there the stored move is singular.
+        private boolean isSingular(final Board board,
+                                   final long entry,
+                                   final Move ttMove,
+                                   final int depth,
+                                   final int ply,
+                                   final int extensions) {
+            if (!configuration.isSingularExtensions() || depth < configuration.getSingularMinDepth() ||
+                    extensions >= configuration.getMaxExtensionsPerLine() ||
+                    TranspositionTable.bound(entry) == TranspositionTable.UPPER_BOUND ||
+                    TranspositionTable.depth(entry) < depth - 3 || MateScores.isMate(TranspositionTable.score(entry))) {
+                return false;
+            }
+            final int singularBeta = TranspositionTable.score(entry) - configuration.getSingularMargin();
+            final int value = alphaBeta(board, depth / 2, ply, singularBeta - 1, singularBeta, extensions, ttMove);
+            if (ply < MAX_PLY) {
+                this.pvLength[ply] = ply;
+            }
+            return value < singularBeta;
         }
-        return currentLowest;
-    }
 
-    private int calculateQuiescenceDepth(final Board toBoard,
-                                         final int depth) {
-        if(depth == 1 && this.quiescenceCount < MAX_QUIESCENCE) {
-            int activityMeasure = 0;
-            if (toBoard.currentPlayer().isInCheck()) {
-                activityMeasure += 1;
+        // Behavior: a move giving check is extended while the line has extensions left
+        private boolean isCheckExtended(final Board toBoard,
+                                        final int extensions) {
+            if (configuration.isCheckExtensions() && extensions < configuration.getMaxExtensionsPerLine() &&
+                    toBoard.currentPlayer().isInCheck()) {
+                this.checkExtensions++;
+                return true;
             }
-            for(final Move move: BoardUtils.lastNMoves(toBoard, 2)) {
-                if(move.isAttack()) {
-                    activityMeasure += 1;
+            return false;
+        }
+
+        // Behavior: a quiet move that cut off becomes the ply's first killer and gains history by depth squared.
+        //           All history scores of the side are halved once one of them grows past HISTORY_LIMIT.
+        private void updateQuietMoveOrdering(final Board board,
+                                             final SearchStack.Frame frame,
+                                             final Move move,
+                                             final int depth) {
+            if (!move.equals(frame.killers[0])) {
+                frame.killers[1] = frame.killers[0];
+                frame.killers[0] = move;
+            }
+            final int[] sideHistory = this.historyScores[allianceIndex(board)];
+            final int index = MovePicker.historyIndex(move);
+            sideHistory[index] += depth * depth;
+            if (sideHistory[index] > HISTORY_LIMIT) {
+                for (int i = 0; i < sideHistory.length; i++) {
+                    sideHistory[i] /= 2;
                 }
             }
-            if(activityMeasure >= 2) {
-                this.quiescenceCount++;
-                return 2;
+        }
+
+        // Return: the leaf's score for the side to move, or a bound past the window if lazy evaluation is on and
+        //         the evaluator's cheap terms decide it
+        private int evaluateLeaf(final Board board,
+                                 final int alpha,
+                                 final int beta) {
+            final int sign = sideToMoveSign(board);
+            if (configuration.isLazyEvaluation()) {
+                // the evaluator takes the window from white's point of view
+                final int bound = evaluator.lazyBound(board, 0, sign == 1 ? alpha : -beta, sign == 1 ? beta : -alpha);
+                if (bound != BoardEvaluator.UNDECIDED) {
+                    this.lazyEvaluations++;
+                    return sign * bound;
+                }
             }
+            return sign * evaluator.evaluate(board, 0);
         }
-        return depth - 1;
-    }
 
-    private static String calculateTimeTaken(final long start, final long end) {
-        final long timeTaken = (end - start) / 1000000;
-        return timeTaken + " ms";
+        private void flush() {
+            this.stats.add(this.nodes, this.extendedNodes, this.betaCutoffs, this.firstMoveBetaCutoffs, this.maxPly);
+            this.stats.addPruning(this.futilityPrunes, this.razorReductions);
+            this.stats.addExtensions(this.checkExtensions, this.singularExtensions);
+            this.stats.addTranspositionProbes(this.transpositionProbes, this.transpositionHits);
+            this.stats.addMateDistancePrunes(this.mateDistancePrunes);
+            this.stats.addRepetitionDraws(this.repetitionDraws);
+            this.stats.addLazyEvaluations(this.lazyEvaluations);
+            this.nodes = 0;
+            this.extendedNodes = 0;
+            this.betaCutoffs = 0;
+            this.firstMoveBetaCutoffs = 0;
+            this.futilityPrunes = 0;
+            this.razorReductions = 0;
+            this.checkExtensions = 0;
+            this.singularExtensions = 0;
+            this.transpositionProbes = 0;
+            this.transpositionHits = 0;
+            this.mateDistancePrunes = 0;
+            this.repetitionDraws = 0;
+            this.lazyEvaluations = 0;
+        }
+
+        // Behavior: extends a frontier move by one ply when it recaptures on the square just captured on or gives
+        //           check with a capture, out of the line's extension budget
+        private int calculateQuiescenceDepth(final Board toBoard,
+                                             final int depth,
+                                             final int extensions) {
+            if(depth == 1 && this.quiescenceCount < MAX_QUIESCENCE &&
+                    extensions < configuration.getMaxExtensionsPerLine()) {
+                final Move lastMove = toBoard.getTransitionMove();
+                final Move previousMove = lastMove.getBoard().getTransitionMove();
+                final boolean recapture = lastMove.isAttack() && previousMove.isAttack() &&
+                        lastMove.getDestinationCoordinate() == previousMove.getDestinationCoordinate();
+                if(recapture || (lastMove.isAttack() && toBoard.currentPlayer().isInCheck())) {
+                    this.quiescenceCount++;
+                    return depth;
+                }
+            }
+            return depth - 1;
+        }
     }
 
-}
\ No newline at end of file
+}
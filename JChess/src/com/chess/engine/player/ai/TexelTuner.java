@@ -0,0 +1,368 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.TaperedScore;
+import com.chess.engine.pieces.Piece;
+import com.chess.pgn.PgnUtilities;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// This class tunes the hand-picked weights of StandardBoardEvaluator, the PawnStructureAnalyzer penalties and
+// the Alliance piece square tables, midgame and endgame, on positions from played games, Texel's way: the
+// evaluation squashed through a sigmoid should predict the result of the game, and the weights are moved to
+// shrink the mean squared error of that prediction.
+// The evaluation is linear in the weights, a piece's two tables mixed by the position's phase, so the gradient
+// of the error is exact and one pass over the positions gives all of it. The passes are split over threads,
+// each summing the error and gradient of its share of the positions; the weights then take one Adam step.
+// Usage: TexelTuner <output file> <pgn file>... writes the tuned weights as Java constants.
+public final class TexelTuner {
+
+    private static final String[] TERM_NAMES = {"CHECK_BONUS", "CASTLE_BONUS", "MOBILITY_MULTIPLIER",
+            "ATTACK_MULTIPLIER", "TWO_BISHOPS_BONUS", "DOUBLED_PAWN_PENALTY", "ISOLATED_PAWN_PENALTY"};
+    private static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+    // the pieces with an endgame table of their own, the others score the same in both phases
+    private static final Piece.PieceType[] ENDGAME_PIECE_TYPES = {Piece.PieceType.PAWN, Piece.PieceType.KING};
+    private static final int MIDGAME_TABLES_END = TuningPositions.NUM_TERMS + 2 * NUM_PIECE_TYPES * BoardUtils.NUM_TILES;
+    public static final int NUM_PARAMETERS = MIDGAME_TABLES_END + 2 * ENDGAME_PIECE_TYPES.length * BoardUtils.NUM_TILES;
+    // the endgame weight of each packed piece, or -1 for a piece without an endgame table
+    private static final int[] ENDGAME_PARAMETERS = endgameParameters();
+    public static final int DEFAULT_ITERATIONS = 2000;
+    private static final double LEARNING_RATE = 1.0;
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    private final TuningPositions positions;
+    private final int parallelism;
+    private final double[] parameters;
+    // Adam's running means of the gradient and of its square, and the number of steps taken
+    private final double[] firstMoment;
+    private final double[] secondMoment;
+    private int steps;
+    private double scalingConstant;
+
+    // Parameter:
+    //      positions: the positions to learn from
+    //      parallelism: the number of threads sharing each pass over the positions
+    public TexelTuner(final TuningPositions positions,
+                      final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        }
+        this.positions = positions;
+        this.parallelism = parallelism;
+        this.parameters = new double[NUM_PARAMETERS];
+        this.firstMoment = new double[NUM_PARAMETERS];
+        this.secondMoment = new double[NUM_PARAMETERS];
+        final int[] defaults = defaultParameters();
+        for (int i = 0; i < NUM_PARAMETERS; i++) {
+            this.parameters[i] = defaults[i];
+        }
+        this.scalingConstant = 1.0;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("usage: TexelTuner <output file> <pgn file>...");
+        }
+        final TuningPositions positions = new TuningPositions();
+        for (int i = 1; i < args.length; i++) {
+            try (final Reader reader = Files.newBufferedReader(Paths.get(args[i]), StandardCharsets.ISO_8859_1)) {
+                PgnUtilities.readGames(reader, positions::addGame);
+            }
+            System.out.println(args[i] + ": " + positions.size() + " positions");
+        }
+        final TexelTuner tuner = new TexelTuner(positions, Runtime.getRuntime().availableProcessors());
+        System.out.println("K = " + tuner.fitScalingConstant() + ", error " + tuner.error());
+        for (int done = 0; done < DEFAULT_ITERATIONS; done += 100) {
+            tuner.tune(100);
+            System.out.println("iteration " + (done + 100) + ": error " + tuner.error());
+        }
+        tuner.write(Paths.get(args[0]));
+    }
+
+    // Return: the weights the evaluator uses now: the terms in TERM_NAMES order, then the white and the black
+    //         piece square tables, pawn to king, 64 squares each, then the white and the black endgame tables
+    //         in ENDGAME_PIECE_TYPES order
+    public static int[] defaultParameters() {
+        final int[] defaults = new int[NUM_PARAMETERS];
+        defaults[TuningPositions.CHECK] = StandardBoardEvaluator.CHECK_BONUS;
+        defaults[TuningPositions.CASTLE] = StandardBoardEvaluator.CASTLE_BONUS;
+        defaults[TuningPositions.MOBILITY] = StandardBoardEvaluator.MOBILITY_MULTIPLIER;
+        defaults[TuningPositions.ATTACKS] = StandardBoardEvaluator.ATTACK_MULTIPLIER;
+        defaults[TuningPositions.TWO_BISHOPS] = StandardBoardEvaluator.TWO_BISHOPS_BONUS;
+        defaults[TuningPositions.DOUBLED_PAWNS] = PawnStructureAnalyzer.DOUBLED_PAWN_PENALTY;
+        defaults[TuningPositions.ISOLATED_PAWNS] = PawnStructureAnalyzer.ISOLATED_PAWN_PENALTY;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+                for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    defaults[pieceSquareParameter(alliance, pieceType, square)] = locationBonus(alliance, pieceType, square);
+                }
+            }
+            for (final Piece.PieceType pieceType : ENDGAME_PIECE_TYPES) {
+                for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    defaults[endgameParameter(alliance, pieceType, square)] = pieceType == Piece.PieceType.PAWN ?
+                            alliance.pawnEndgameBonus(square) : alliance.kingEndgameBonus(square);
+                }
+            }
+        }
+        return defaults;
+    }
+
+    // Return: the current weights rounded to whole centipawns, in defaultParameters order
+    public int[] getParameters() {
+        final int[] rounded = new int[NUM_PARAMETERS];
+        for (int i = 0; i < NUM_PARAMETERS; i++) {
+            rounded[i] = (int) Math.round(this.parameters[i]);
+        }
+        return rounded;
+    }
+
+    public double getScalingConstant() {
+        return this.scalingConstant;
+    }
+
+    // Return: the score of the position from white's point of view with the current weights, within a
+    //         centipawn of StandardBoardEvaluator's with the default weights, which rounds the phase blend
+    public double evaluate(final int position) {
+        return evaluate(position, this.parameters);
+    }
+
+    // Behavior: picks the sigmoid scaling constant K that best fits the current weights to the results, searching
+    //           ever finer steps around the best one
+    // Return: K
+    public double fitScalingConstant() {
+        double best = this.scalingConstant;
+        double bestError = error();
+        for (double step = 0.5; step > 0.001; step /= 10) {
+            for (int i = -9; i <= 9; i++) {
+                final double candidate = best + i * step;
+                if (candidate <= 0) {
+                    continue;
+                }
+                this.scalingConstant = candidate;
+                final double candidateError = error();
+                if (candidateError < bestError) {
+                    bestError = candidateError;
+                    best = candidate;
+                }
+            }
+        }
+        this.scalingConstant = best;
+        return best;
+    }
+
+    // Return: the mean squared error of the predicted results with the current weights
+    public double error() {
+        return run(false)[0];
+    }
+
+    // Behavior: takes the given number of Adam steps down the gradient of the error, K left where it is. Calls
+    //           carry on from each other.
+    public void tune(final int iterations) {
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            final double[] gradient = run(true);
+            this.steps++;
+            for (int i = 0; i < NUM_PARAMETERS; i++) {
+                final double g = gradient[i + 1];
+                this.firstMoment[i] = BETA1 * this.firstMoment[i] + (1 - BETA1) * g;
+                this.secondMoment[i] = BETA2 * this.secondMoment[i] + (1 - BETA2) * g * g;
+                final double corrected = this.firstMoment[i] / (1 - Math.pow(BETA1, this.steps));
+                final double scale = this.secondMoment[i] / (1 - Math.pow(BETA2, this.steps));
+                this.parameters[i] -= LEARNING_RATE * corrected / (Math.sqrt(scale) + EPSILON);
+            }
+        }
+    }
+
+    // Behavior: writes the rounded weights as the Java constants they replace, the piece square tables in the
+    //           layout of Alliance's arrays
+    public void write(final Path path) throws IOException {
+        final int[] tuned = getParameters();
+        final StringBuilder builder = new StringBuilder();
+        builder.append("// tuned on ").append(this.positions.size()).append(" positions, K = ")
+                .append(this.scalingConstant).append(", error ").append(error()).append('\n');
+        for (int term = 0; term < TuningPositions.NUM_TERMS; term++) {
+            builder.append(TERM_NAMES[term]).append(" = ").append(tuned[term]).append(";\n");
+        }
+        for (final Alliance alliance : Alliance.values()) {
+            for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+                writeTable(builder, alliance.name() + '_' + pieceType.name() + "_PREFERRED_COORDINATES", tuned,
+                        pieceSquareParameter(alliance, pieceType, 0));
+            }
+            for (final Piece.PieceType pieceType : ENDGAME_PIECE_TYPES) {
+                writeTable(builder, alliance.name() + '_' + pieceType.name() + "_ENDGAME_PREFERRED_COORDINATES", tuned,
+                        endgameParameter(alliance, pieceType, 0));
+            }
+        }
+        Files.write(path, builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeTable(final StringBuilder builder,
+                                   final String name,
+                                   final int[] tuned,
+                                   final int first) {
+        builder.append('\n').append(name).append(" = {\n");
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            builder.append(square % BoardUtils.NUM_TILES_PER_ROW == 0 ? "        " : " ")
+                    .append(String.format("%4d", tuned[first + square]))
+                    .append(square == BoardUtils.NUM_TILES - 1 ? "\n" : square % BoardUtils.NUM_TILES_PER_ROW == 7 ? ",\n" : ",");
+        }
+        builder.append("};\n");
+    }
+
+    // Return: the error in slot 0, and when asked the gradient of the error by each weight in the slots after it
+    private double[] run(final boolean withGradient) {
+        final int numPositions = this.positions.size();
+        if (numPositions == 0) {
+            throw new IllegalStateException("no positions to tune on");
+        }
+        final double[] parameters = this.parameters.clone();
+        final double[] total = new double[NUM_PARAMETERS + 1];
+        if (this.parallelism == 1) {
+            accumulate(parameters, 0, numPositions, withGradient, total);
+        } else {
+            final ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+            try {
+                final List<Future<double[]>> shares = new ArrayList<>();
+                for (int thread = 0; thread < this.parallelism; thread++) {
+                    final int from = (int) ((long) numPositions * thread / this.parallelism);
+                    final int to = (int) ((long) numPositions * (thread + 1) / this.parallelism);
+                    shares.add(executor.submit(() -> {
+                        final double[] share = new double[NUM_PARAMETERS + 1];
+                        accumulate(parameters, from, to, withGradient, share);
+                        return share;
+                    }));
+                }
+                for (final Future<double[]> share : shares) {
+                    final double[] values = share.get();
+                    for (int i = 0; i < total.length; i++) {
+                        total[i] += values[i];
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("tuning interrupted", e);
+            } catch (final ExecutionException e) {
+                throw new RuntimeException("tuning thread failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        for (int i = 0; i < total.length; i++) {
+            total[i] /= numPositions;
+        }
+        return total;
+    }
+
+    private void accumulate(final double[] parameters,
+                            final int from,
+                            final int to,
+                            final boolean withGradient,
+                            final double[] sums) {
+        final double k = this.scalingConstant * Math.log(10) / 400;
+        for (int position = from; position < to; position++) {
+            final double prediction = 1 / (1 + Math.exp(-k * evaluate(position, parameters)));
+            final double difference = prediction - this.positions.getResult(position);
+            sums[0] += difference * difference;
+            if (!withGradient) {
+                continue;
+            }
+            // the derivative of the squared error by the score, each weight adds its coefficient times this
+            final double slope = 2 * difference * prediction * (1 - prediction) * k;
+            for (int term = 0; term < TuningPositions.NUM_TERMS; term++) {
+                sums[term + 1] += slope * this.positions.getTerm(position, term);
+            }
+            final int phase = this.positions.getPhase(position);
+            for (int i = this.positions.getPiecesStart(position); i < this.positions.getPiecesEnd(position); i++) {
+                final int pieceSquare = this.positions.getPieceSquare(i);
+                final double pieceSlope = TuningPositions.isWhite(pieceSquare) ? slope : -slope;
+                final int endgame = ENDGAME_PARAMETERS[pieceSquare];
+                if (endgame < 0) {
+                    sums[TuningPositions.NUM_TERMS + pieceSquare + 1] += pieceSlope;
+                } else {
+                    sums[TuningPositions.NUM_TERMS + pieceSquare + 1] += pieceSlope * phase / TaperedScore.MAX_PHASE;
+                    sums[endgame + 1] += pieceSlope * (TaperedScore.MAX_PHASE - phase) / TaperedScore.MAX_PHASE;
+                }
+            }
+        }
+    }
+
+    private double evaluate(final int position,
+                            final double[] parameters) {
+        double score = this.positions.getFixedScore(position);
+        for (int term = 0; term < TuningPositions.NUM_TERMS; term++) {
+            score += parameters[term] * this.positions.getTerm(position, term);
+        }
+        final int phase = this.positions.getPhase(position);
+        for (int i = this.positions.getPiecesStart(position); i < this.positions.getPiecesEnd(position); i++) {
+            final int pieceSquare = this.positions.getPieceSquare(i);
+            final int endgame = ENDGAME_PARAMETERS[pieceSquare];
+            final double midgameBonus = parameters[TuningPositions.NUM_TERMS + pieceSquare];
+            final double bonus = endgame < 0 ? midgameBonus :
+                    (midgameBonus * phase + parameters[endgame] * (TaperedScore.MAX_PHASE - phase)) / TaperedScore.MAX_PHASE;
+            score += TuningPositions.isWhite(pieceSquare) ? bonus : -bonus;
+        }
+        return score;
+    }
+
+    private static int pieceSquareParameter(final Alliance alliance,
+                                            final Piece.PieceType pieceType,
+                                            final int square) {
+        return TuningPositions.NUM_TERMS + ((alliance.isWhite() ? 0 : NUM_PIECE_TYPES) + pieceType.ordinal()) *
+                BoardUtils.NUM_TILES + square;
+    }
+
+    private static int endgameParameter(final Alliance alliance,
+                                        final Piece.PieceType pieceType,
+                                        final int square) {
+        final int table = pieceType == Piece.PieceType.PAWN ? 0 : 1;
+        return MIDGAME_TABLES_END + ((alliance.isWhite() ? 0 : ENDGAME_PIECE_TYPES.length) + table) *
+                BoardUtils.NUM_TILES + square;
+    }
+
+    private static int[] endgameParameters() {
+        final int[] parameters = new int[2 * NUM_PIECE_TYPES * BoardUtils.NUM_TILES];
+        Arrays.fill(parameters, -1);
+        for (final Alliance alliance : Alliance.values()) {
+            for (final Piece.PieceType pieceType : ENDGAME_PIECE_TYPES) {
+                for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    parameters[pieceSquareParameter(alliance, pieceType, square) - TuningPositions.NUM_TERMS] =
+                            endgameParameter(alliance, pieceType, square);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private static int locationBonus(final Alliance alliance,
+                                     final Piece.PieceType pieceType,
+                                     final int square) {
+        switch (pieceType) {
+            case PAWN:
+                return alliance.pawnBonus(square);
+            case KNIGHT:
+                return alliance.knightBonus(square);
+            case BISHOP:
+                return alliance.bishopBonus(square);
+            case ROOK:
+                return alliance.rookBonus(square);
+            case QUEEN:
+                return alliance.queenBonus(square);
+            default:
+                return alliance.kingBonus(square);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+// This class is a fixed size hash table of search results shared by all search threads without locks.
+// Every slot is two longs: the packed entry and the position key xor-ed with it. A slot torn by two threads
+// writing at once no longer xors back to its key and simply reads as a miss.
+// Moves are stored as origin and destination squares and resolved against the legal moves when read.
+final class TranspositionTable {
+
+    static final int EXACT = 0;
+    static final int LOWER_BOUND = 1;
+    static final int UPPER_BOUND = 2;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int HAS_MOVE_SHIFT = 42;
+    private static final int FROM_SHIFT = 43;
+    private static final int TO_SHIFT = 49;
+    private static final int GENERATION_SHIFT = 55;
+    private static final long SQUARE_MASK = 0x3F;
+    private static final long BYTE_MASK = 0xFF;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private volatile int generation;
+
+    TranspositionTable(final int sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("transposition table size must be at least 1 MB, was " + sizeInMegabytes);
+        }
+        final int numEntries = Integer.highestOneBit((int) Math.min((long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY,
+                1 << 30));
+        this.keys = new long[numEntries];
+        this.entries = new long[numEntries];
+        this.mask = numEntries - 1;
+        this.generation = 0;
+    }
+
+    // Behavior: starts a new search, older entries become the first to be replaced
+    void newSearch() {
+        this.generation = (this.generation + 1) & (int) BYTE_MASK;
+    }
+
+    void clear() {
+        for (int i = 0; i < this.entries.length; i++) {
+            this.keys[i] = 0;
+            this.entries[i] = 0;
+        }
+    }
+
+    // Return: the packed entry stored for the key, or 0 if there is none
+    long probe(final long key) {
+        final int index = (int) key & this.mask;
+        final long entry = this.entries[index];
+        return entry != 0 && (this.keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    // Behavior: stores a result, replacing the slot's entry unless that one is from this search and deeper
+    void store(final long key,
+               final int depth,
+               final int score,
+               final int bound,
+               final Move move) {
+        final int index = (int) key & this.mask;
+        final long current = this.entries[index];
+        if (current != 0 && (this.keys[index] ^ current) != key && generation(current) == this.generation &&
+                depth(current) > depth) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL) |
+                ((long) depth << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) this.generation << GENERATION_SHIFT);
+        if (move != null && move != Move.MoveFactory.getNullMove()) {
+            entry |= (1L << HAS_MOVE_SHIFT) |
+                    ((long) move.getCurrentCoordinate() << FROM_SHIFT) |
+                    ((long) move.getDestinationCoordinate() << TO_SHIFT);
+        } else if (current != 0 && (this.keys[index] ^ current) == key && hasMove(current)) {
+            entry |= current & (((SQUARE_MASK << FROM_SHIFT) | (SQUARE_MASK << TO_SHIFT)) | (1L << HAS_MOVE_SHIFT));
+        }
+        this.keys[index] = key ^ entry;
+        this.entries[index] = entry;
+    }
+
+    static int score(final long entry) {
+        return (int) entry;
+    }
+
+    static int depth(final long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & BYTE_MASK);
+    }
+
+    static int bound(final long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & 0x3);
+    }
+
+    static boolean hasMove(final long entry) {
+        return ((entry >>> HAS_MOVE_SHIFT) & 1) != 0;
+    }
+
+    // Return: the legal move of the board matching the stored move, or null if there is none
+    static Move move(final long entry,
+                     final Board board) {
+        if (!hasMove(entry)) {
+            return null;
+        }
+        final int from = (int) ((entry >>> FROM_SHIFT) & SQUARE_MASK);
+        final int to = (int) ((entry >>> TO_SHIFT) & SQUARE_MASK);
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getDestinationCoordinate() == to && move.getCurrentCoordinate() == from) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private static int generation(final long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & BYTE_MASK);
+    }
+
+}
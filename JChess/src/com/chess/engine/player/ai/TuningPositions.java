@@ -0,0 +1,199 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.Player;
+import com.chess.pgn.FenUtilities;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnUtilities;
+
+import java.util.Arrays;
+
+// This class holds the positions TexelTuner learns from, packed into a few primitive arrays instead of Board
+// objects: a position is its pieces as one short each, the white minus black counts of the evaluation terms
+// the tuner weighs, the part of the evaluation it leaves alone, its game phase and the result of its game.
+// That is about 80 bytes a position, a million positions fit in well under 100 MB.
+// StandardBoardEvaluator is linear in the weights being tuned, so a position's score for any weights is read
+// off these numbers without rebuilding the board.
+public final class TuningPositions {
+
+    static final int CHECK = 0;
+    static final int CASTLE = 1;
+    static final int MOBILITY = 2;
+    static final int ATTACKS = 3;
+    static final int TWO_BISHOPS = 4;
+    static final int DOUBLED_PAWNS = 5;
+    static final int ISOLATED_PAWNS = 6;
+    static final int NUM_TERMS = 7;
+    // positions this early in a game are mostly opening theory, not evaluation
+    private static final int OPENING_PLIES = 8;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int PIECE_SHIFT = 6;
+
+    private int size;
+    // the pieces of position i are pieces[pieceOffsets[i] ..< pieceOffsets[i + 1]]
+    private int[] pieceOffsets;
+    private short[] pieces;
+    private short[] terms;
+    private int[] fixedScores;
+    // the Board phase that blends the midgame and endgame piece square tables
+    private byte[] phases;
+    // the score of the game for white in halves: 0 lost, 1 drawn, 2 won
+    private byte[] results;
+
+    public TuningPositions() {
+        this.pieceOffsets = new int[INITIAL_CAPACITY + 1];
+        this.pieces = new short[INITIAL_CAPACITY * 32];
+        this.terms = new short[INITIAL_CAPACITY * NUM_TERMS];
+        this.fixedScores = new int[INITIAL_CAPACITY];
+        this.phases = new byte[INITIAL_CAPACITY];
+        this.results = new byte[INITIAL_CAPACITY];
+    }
+
+    // Behavior: replays the game and adds its quiet positions: past the opening, with the move played from them
+    //           neither a capture nor a promotion, so the score of the position is not about to swing. A game
+    //           without a result adds nothing, a move that cannot be replayed ends the game there.
+    // Return: the number of positions added
+    public int addGame(final PgnGame game) {
+        final double whiteScore = game.getWhiteScore();
+        if (whiteScore < 0) {
+            return 0;
+        }
+        final String startPosition = game.getTag("FEN");
+        Board board = startPosition != null ? FenUtilities.createGameFromFEN(startPosition) : Board.createStandardBoard();
+        int added = 0;
+        int ply = 0;
+        for (final String san : game.getMoves()) {
+            final Move move = PgnUtilities.findMove(board, san);
+            if (move == Move.MoveFactory.getNullMove()) {
+                break;
+            }
+            if (ply >= OPENING_PLIES && !move.isAttack() && !(move instanceof Move.PawnPromotion) &&
+                    add(board, whiteScore)) {
+                added++;
+            }
+            board = move.execute();
+            ply++;
+        }
+        return added;
+    }
+
+    // Behavior: packs the board with the score of its game for white, 1, 0.5 or 0. A board where a side cannot
+    //           move is left out, the evaluation scores it apart from the tuned terms.
+    // Return: true if the board was added
+    public boolean add(final Board board,
+                       final double whiteScore) {
+        final Player white = board.whitePlayer();
+        final Player black = board.blackPlayer();
+        if (white.getLegalMoves().isEmpty() || black.getLegalMoves().isEmpty() ||
+                white.isInCheckMate() || black.isInCheckMate()) {
+            return false;
+        }
+        ensureCapacity(board.getWhitePieces().size() + board.getBlackPieces().size());
+        final int termOffset = this.size * NUM_TERMS;
+        this.terms[termOffset + CHECK] = (short) ((black.isInCheck() ? 1 : 0) - (white.isInCheck() ? 1 : 0));
+        this.terms[termOffset + CASTLE] = (short) ((white.isCastled() ? 1 : 0) - (black.isCastled() ? 1 : 0));
+        this.terms[termOffset + MOBILITY] = (short) (mobilityRatio(white) - mobilityRatio(black));
+        this.terms[termOffset + ATTACKS] = (short) (favourableAttacks(white) - favourableAttacks(black));
+        this.terms[termOffset + TWO_BISHOPS] = (short) ((board.getBishopCount(Alliance.WHITE) == 2 ? 1 : 0) -
+                (board.getBishopCount(Alliance.BLACK) == 2 ? 1 : 0));
+        this.terms[termOffset + DOUBLED_PAWNS] = (short) (PawnStructureAnalyzer.countDoubledPawns(board.getWhitePieces()) -
+                PawnStructureAnalyzer.countDoubledPawns(board.getBlackPieces()));
+        this.terms[termOffset + ISOLATED_PAWNS] = (short) (PawnStructureAnalyzer.countIsolatedPawns(board.getWhitePieces()) -
+                PawnStructureAnalyzer.countIsolatedPawns(board.getBlackPieces()));
+        int fixedScore = KingSafetyAnalyzer.get().kingTropism(white) - KingSafetyAnalyzer.get().kingTropism(black);
+        int pieceCount = this.pieceOffsets[this.size];
+        for (final Piece piece : board.getWhitePieces()) {
+            this.pieces[pieceCount++] = packPiece(piece);
+            fixedScore += piece.getPieceValue();
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            this.pieces[pieceCount++] = packPiece(piece);
+            fixedScore -= piece.getPieceValue();
+        }
+        this.fixedScores[this.size] = fixedScore;
+        this.phases[this.size] = (byte) board.getPhase();
+        this.results[this.size] = (byte) Math.round(whiteScore * 2);
+        this.size++;
+        this.pieceOffsets[this.size] = pieceCount;
+        return true;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    // Return: the score of the position's game for white, 1, 0.5 or 0
+    public double getResult(final int position) {
+        return this.results[position] / 2.0;
+    }
+
+    int getTerm(final int position,
+                final int term) {
+        return this.terms[position * NUM_TERMS + term];
+    }
+
+    int getFixedScore(final int position) {
+        return this.fixedScores[position];
+    }
+
+    int getPhase(final int position) {
+        return this.phases[position];
+    }
+
+    int getPiecesStart(final int position) {
+        return this.pieceOffsets[position];
+    }
+
+    int getPiecesEnd(final int position) {
+        return this.pieceOffsets[position + 1];
+    }
+
+    // Return: the piece square table entry of a packed piece, (alliance * 6 + piece type) * 64 + square
+    int getPieceSquare(final int index) {
+        return this.pieces[index];
+    }
+
+    // Return: true if the packed piece is white
+    static boolean isWhite(final int pieceSquare) {
+        return pieceSquare < Piece.PieceType.values().length * BoardUtils.NUM_TILES;
+    }
+
+    private static short packPiece(final Piece piece) {
+        final int alliance = piece.getPieceAlliance().isWhite() ? 0 : 1;
+        return (short) ((alliance * Piece.PieceType.values().length + piece.getPieceType().ordinal()) << PIECE_SHIFT |
+                piece.getPiecePosition());
+    }
+
+    // the ratio StandardBoardEvaluator's mobility term multiplies by MOBILITY_MULTIPLIER
+    private static int mobilityRatio(final Player player) {
+        return (int) ((player.getLegalMoves().size() * 10.0f) / player.getOpponent().getLegalMoves().size());
+    }
+
+    private static int favourableAttacks(final Player player) {
+        int attacks = 0;
+        for (final Move move : player.getLegalMoves()) {
+            if (move.isAttack() && move.getMovedPiece().getPieceValue() <= move.getAttackedPiece().getPieceValue()) {
+                attacks++;
+            }
+        }
+        return attacks;
+    }
+
+    private void ensureCapacity(final int numPieces) {
+        if (this.size == this.results.length) {
+            final int capacity = this.results.length * 2;
+            this.pieceOffsets = Arrays.copyOf(this.pieceOffsets, capacity + 1);
+            this.terms = Arrays.copyOf(this.terms, capacity * NUM_TERMS);
+            this.fixedScores = Arrays.copyOf(this.fixedScores, capacity);
+            this.phases = Arrays.copyOf(this.phases, capacity);
+            this.results = Arrays.copyOf(this.results, capacity);
+        }
+        if (this.pieceOffsets[this.size] + numPieces > this.pieces.length) {
+            this.pieces = Arrays.copyOf(this.pieces, Math.max(this.pieces.length * 2, this.pieceOffsets[this.size] + numPieces));
+        }
+    }
+}
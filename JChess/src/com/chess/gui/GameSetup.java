@@ -2,6 +2,7 @@ package com.chess.gui;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.SearchLimits;
 import com.chess.gui.Table.PlayerType;
 
 import javax.swing.*;
@@ -14,6 +15,8 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private JSpinner searchDepthSpinner;
+    private JSpinner moveTimeSpinner;
+    private JCheckBox ponderCheckBox;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -46,7 +49,10 @@ class GameSetup extends JDialog {
         myPanel.add(blackComputerButton);
 
         myPanel.add(new JLabel("Search"));
-        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 1, SearchLimits.MAX_SEARCH_DEPTH, 1));
+        this.moveTimeSpinner = addLabeledSpinner(myPanel, "Move Time (s, 0 = none)", new SpinnerNumberModel(0, 0, 3600, 1));
+        this.ponderCheckBox = new JCheckBox("Ponder on Opponent's Time", true);
+        myPanel.add(this.ponderCheckBox);
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -108,4 +114,12 @@ class GameSetup extends JDialog {
     int getSearchDepth() {
         return (Integer)this.searchDepthSpinner.getValue();
     }
+
+    long getMoveTimeMillis() {
+        return 1000L * (Integer)this.moveTimeSpinner.getValue();
+    }
+
+    boolean isPonderEnabled() {
+        return this.ponderCheckBox.isSelected();
+    }
 }
\ No newline at end of file
@@ -6,7 +6,12 @@ import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
-import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.AnalysisSession;
+import com.chess.engine.player.ai.MateScores;
+import com.chess.engine.player.ai.SearchController;
+import com.chess.engine.player.ai.SearchEvent;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchResult;
 import com.chess.engine.player.ai.StockAlphaBeta;
 import com.google.common.collect.Lists;
 
@@ -17,12 +22,15 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
 import static javax.swing.SwingUtilities.isRightMouseButton;
@@ -39,6 +47,12 @@ public class Table extends Observable {
     private BoardDirection boardDirection;
 
     private Move computerMove;
+    private SearchResult computerSearchResult;
+    private AIThinkTank thinkTank;
+    private AIThinkTank ponderTank;
+    private final StockAlphaBeta engine;
+    private final AnalysisSession analysisSession;
+    private boolean analysisMode;
 
     private boolean highlightLegalMoves;
 
@@ -68,6 +82,11 @@ public class Table extends Observable {
         this.takenPiecesPanel = new TakenPiecesPanel();
         this.boardPanel = new BoardPanel();
         this.moveLog = new MoveLog();
+        // one engine for the whole game, so each search starts from the transposition table of the last one
+        this.engine = new StockAlphaBeta(SearchLimits.MAX_SEARCH_DEPTH);
+        this.analysisSession = new AnalysisSession();
+        this.analysisSession.getSearchEvents().subscribe(new AnalysisSubscriber());
+        this.analysisMode = false;
         this.addObserver(new TableGameAIWatcher());
         this.gameSetup = new GameSetup(this.gameFrame, true);
         this.boardDirection = BoardDirection.NORMAL;
@@ -75,6 +94,13 @@ public class Table extends Observable {
         this.gameFrame.add(this.takenPiecesPanel, BorderLayout.WEST);
         this.gameFrame.add(this.boardPanel, BorderLayout.CENTER);
         this.gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
+        this.gameFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(final WindowEvent e) {
+                stopThinking();
+                analysisSession.close();
+            }
+        });
         this.gameFrame.setVisible(true);
     }
 
@@ -121,6 +147,7 @@ public class Table extends Observable {
         exitMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                Table.get().stopThinking();
                 System.exit(0);
             }
         });
@@ -163,12 +190,29 @@ public class Table extends Observable {
 
             @Override
             public void actionPerformed(ActionEvent e) {
+                Table.get().stopThinking();
                 Table.get().getGameSetup().promptUser();
                 Table.get().setupUpdate(Table.get().getGameSetup());
             }
         });
 
         optionsMenu.add(setupGameMenuItem);
+
+        final JCheckBoxMenuItem analysisCheckBox = new JCheckBoxMenuItem("Analyze Position", false);
+        analysisCheckBox.addActionListener(new ActionListener() {
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                analysisMode = analysisCheckBox.isSelected();
+                if (analysisMode) {
+                    analysisSession.analyze(chessBoard);
+                } else {
+                    analysisSession.stop();
+                    gameFrame.setTitle(AIThinkTank.TITLE);
+                }
+            }
+        });
+        optionsMenu.add(analysisCheckBox);
         return optionsMenu;
     }
 
@@ -181,13 +225,16 @@ public class Table extends Observable {
 
         @Override
         public void update(final Observable o, final Object arg) {
-            if(Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
-                    !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
-                    !Table.get().getGameBoard().currentPlayer().isInStaleMate()) {
+            final boolean gameOver = Table.get().getGameBoard().currentPlayer().isInCheckMate() ||
+                    Table.get().getGameBoard().currentPlayer().isInStaleMate() ||
+                    BoardUtils.isThreefoldRepetition(Table.get().getGameBoard()) ||
+                    BoardUtils.isFiftyMoveRule(Table.get().getGameBoard());
+            if(Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) && !gameOver) {
                 // create an AI thread
                 // execute AI work
-                final AIThinkTank thinkTank = new AIThinkTank();
-                thinkTank.execute();
+                Table.get().startThinking();
+            } else if (arg == PlayerType.COMPUTER && Table.get().getGameSetup().isPonderEnabled() && !gameOver) {
+                Table.get().startPondering();
             }
 
             if (Table.get().getGameBoard().currentPlayer().isInCheckMate()) {
@@ -197,11 +244,113 @@ public class Table extends Observable {
             if (Table.get().getGameBoard().currentPlayer().isInStaleMate()) {
                 System.out.println("game over, " + Table.get().getGameBoard().currentPlayer() + " is in stalemate!");
             }
+
+            if (BoardUtils.isThreefoldRepetition(Table.get().getGameBoard())) {
+                System.out.println("game over, draw by threefold repetition!");
+            }
+
+            if (BoardUtils.isFiftyMoveRule(Table.get().getGameBoard())) {
+                System.out.println("game over, draw by the fifty move rule!");
+            }
+        }
+    }
+
+    // Behavior: searches the current position. If the opponent just played the move the engine pondered on,
+    //           the ponder search carries on as this search, or its result is played if it has already finished.
+    private void startThinking() {
+        final AIThinkTank pondered = this.ponderTank;
+        this.ponderTank = null;
+        if (pondered != null && pondered.board.getZobristHash() == getGameBoard().getZobristHash()) {
+            stopThinking();
+            pondered.searchController.ponderHit();
+            if (pondered.finishedResult != null) {
+                SwingUtilities.invokeLater(() -> playComputerMove(pondered.finishedResult));
+            } else {
+                this.thinkTank = pondered;
+            }
+            return;
+        }
+        if (pondered != null) {
+            pondered.halt();
+        }
+        stopThinking();
+        this.thinkTank = new AIThinkTank(getGameBoard(), new SearchController(createSearchLimits(getGameSetup())));
+        this.thinkTank.execute();
+    }
+
+    // Behavior: searches the position after the reply the engine's last search expects, on the opponent's time.
+    //           Nothing is pondered if the last search saw no reply.
+    private void startPondering() {
+        stopThinking();
+        if (this.computerSearchResult == null) {
+            return;
+        }
+        final Move ponderMove = this.computerSearchResult.getPonderMove();
+        if (ponderMove == Move.MoveFactory.getNullMove()) {
+            return;
+        }
+        final MoveTransition transition = getGameBoard().currentPlayer().makeMove(ponderMove);
+        if (!transition.getMoveStatus().isDone()) {
+            return;
+        }
+        this.ponderTank = new AIThinkTank(transition.getTransitionBoard(),
+                SearchController.pondering(createSearchLimits(getGameSetup())));
+        this.ponderTank.execute();
+    }
+
+    // Behavior: stops a running AI search or ponder search and discards its result, freeing the worker thread promptly
+    private void stopThinking() {
+        if (this.thinkTank != null) {
+            this.thinkTank.halt();
+            this.thinkTank = null;
+        }
+        if (this.ponderTank != null) {
+            this.ponderTank.halt();
+            this.ponderTank = null;
+        }
+    }
+
+    // Behavior: called on the event dispatch thread when a search ends. A ponder search that ends before the
+    //           opponent has moved keeps its result for the ponder hit.
+    private void searchFinished(final AIThinkTank thinkTank,
+                                final SearchResult result) {
+        if (thinkTank == this.thinkTank) {
+            this.thinkTank = null;
+            playComputerMove(result);
+        }
+    }
+
+    private void playComputerMove(final SearchResult result) {
+        final Move bestMove = result.getBestMove();
+        this.computerSearchResult = result;
+        updateComputerMove(bestMove);
+        updateGameBoard(getGameBoard().currentPlayer().makeMove(bestMove).getTransitionBoard());
+        getMoveLog().addMove(bestMove);
+        getGameHistoryPanel().redo(getGameBoard(), getMoveLog());
+        getTakenPiecesPanel().redo(getMoveLog());
+        getBoardPanel().drawBoard(getGameBoard());
+        moveMadeUpdate(PlayerType.COMPUTER);
+    }
+
+    private static SearchLimits createSearchLimits(final GameSetup gameSetup) {
+        final SearchLimits.Builder builder = new SearchLimits.Builder().setDepth(gameSetup.getSearchDepth());
+        if (gameSetup.getMoveTimeMillis() > 0) {
+            builder.setSoftTimeMillis(gameSetup.getMoveTimeMillis() / 2);
+            builder.setHardTimeMillis(gameSetup.getMoveTimeMillis());
         }
+        return builder.build();
     }
 
     public void updateGameBoard(final Board board) {
         this.chessBoard = board;
+        updateAnalysis();
+    }
+
+    // Behavior: restarts the analysis on the current position when analysis mode is on
+    private void updateAnalysis() {
+        if (this.analysisMode && this.analysisSession.getBoard() != this.chessBoard) {
+            this.analysisSession.analyze(this.chessBoard);
+        }
     }
 
     public void updateComputerMove(final Move move) {
@@ -229,39 +378,121 @@ public class Table extends Observable {
         notifyObservers(playerType);
     }
 
-    private static class AIThinkTank extends SwingWorker<Move, String> {
+    private static class AIThinkTank extends SwingWorker<SearchResult, String> {
+
+        private static final String TITLE = "JChess";
 
-        private AIThinkTank() {
+        private final Board board;
+        private final SearchController searchController;
+        private SearchResult finishedResult;
 
+        private AIThinkTank(final Board board,
+                            final SearchController searchController) {
+            this.board = board;
+            this.searchController = searchController;
+        }
+
+        private void halt() {
+            this.searchController.stop();
+            cancel(false);
         }
 
         @Override
-        protected Move doInBackground() throws Exception {
+        protected SearchResult doInBackground() throws Exception {
 
-            final MoveStrategy strategy = new StockAlphaBeta(Table.get().getGameSetup().getSearchDepth());
+            final StockAlphaBeta strategy = Table.get().engine;
+            // a halted search may still be unwinding, the engine runs one search at a time
+            synchronized (strategy) {
+                strategy.getSearchEvents().subscribe(new SearchProgressSubscriber());
+                return strategy.search(this.board, this.searchController);
+            }
+        }
 
-            return strategy.execute(Table.get().getGameBoard());
+        @Override
+        protected void process(final List<String> progress) {
+            Table.get().gameFrame.setTitle(TITLE + " - " + progress.get(progress.size() - 1));
         }
 
         @Override
         public void done() {
+            Table.get().gameFrame.setTitle(TITLE);
+            if (isCancelled()) {
+                return;
+            }
             try {
-                final Move bestMove = get();
-
-                Table.get().updateComputerMove(bestMove);
-                Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getTransitionBoard());
-                Table.get().getMoveLog().addMove(bestMove);
-                Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
-                Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
-                Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
-                Table.get().moveMadeUpdate(PlayerType.COMPUTER);
-
+                this.finishedResult = get();
+                Table.get().searchFinished(this, this.finishedResult);
             } catch (InterruptedException e) {
                 e.printStackTrace();
             } catch (ExecutionException e) {
                 e.printStackTrace();
             }
         }
+
+        // This class forwards finished iterations to the event dispatch thread, it runs on the publisher's executor
+        private class SearchProgressSubscriber implements Flow.Subscriber<SearchEvent> {
+
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final SearchEvent event) {
+                if (isDone()) {
+                    this.subscription.cancel();
+                } else if (event.getType() == SearchEvent.Type.ITERATION_COMPLETE) {
+                    final SearchEvent.IterationComplete iteration = (SearchEvent.IterationComplete) event;
+                    publish((searchController.isPondering() ? "pondering, " : "") + "depth " + iteration.getDepth() + ", score " + MateScores.format(iteration.getScore()) +
+                            ", best " + iteration.getBestMove());
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                throwable.printStackTrace();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }
+    }
+
+    // This class shows every finished iteration of the analysis in the title, it runs on the publisher's executor
+    private static class AnalysisSubscriber implements Flow.Subscriber<SearchEvent> {
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final SearchEvent event) {
+            if (event.getType() == SearchEvent.Type.ITERATION_COMPLETE) {
+                final SearchEvent.IterationComplete iteration = (SearchEvent.IterationComplete) event;
+                final String progress = AIThinkTank.TITLE + " - analysis depth " + iteration.getDepth() + ", score " +
+                        MateScores.format(iteration.getScore()) + ", nodes " + iteration.getTotalNodes() + ", nps " +
+                        iteration.getNodesPerSecond() + ", pv " + iteration.getLine();
+                SwingUtilities.invokeLater(() -> {
+                    if (Table.get().analysisMode) {
+                        Table.get().gameFrame.setTitle(progress);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            throwable.printStackTrace();
+        }
+
+        @Override
+        public void onComplete() {
+        }
     }
 
     public enum BoardDirection {
@@ -389,7 +620,7 @@ public class Table extends Observable {
                             final Move move = Move.MoveFactory.createMove(chessBoard,sourceTile.getTileCoordinate(), destinationTile.getTileCoordinate());
                             final MoveTransition transition = chessBoard.currentPlayer().makeMove(move);
                             if (transition.getMoveStatus().isDone()) {
-                                chessBoard = transition.getTransitionBoard();
+                                updateGameBoard(transition.getTransitionBoard());
                                 moveLog.addMove(move);
                             }
                             sourceTile = null;
@@ -23,7 +23,7 @@ public class FenUtilities {
                 calculateCurrentPlayerText(board) + " " +
                 calculateCastleText(board) + " " +
                 calculateEnPassantSquare(board) + " " +
-                "0 1";
+                board.getHalfmoveClock() + " 1";
     }
 
     private static Board parseFEN(final String fenString) {
@@ -104,6 +104,7 @@ public class FenUtilities {
             }
         }
         builder.setMoveMaker(moveMaker(fenPartitions[1]));
+        builder.setHalfmoveClock(halfmoveClock(fenPartitions));
         return builder.build();
     }
 
@@ -116,6 +117,19 @@ public class FenUtilities {
         throw new RuntimeException("Invalid FEN String " +moveMakerString);
     }
 
+    // Behavior: reads the halfmove clock, the fifth field, which many problem FENs leave out or fill with
+    //           something else, such as a game result; the clock then starts at 0
+    private static int halfmoveClock(final String[] fenPartitions) {
+        if (fenPartitions.length < 5) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(fenPartitions[4]));
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private static boolean whiteKingSideCastle(final String fenCastleString) {
         return fenCastleString.contains("K");
     }
@@ -0,0 +1,62 @@
+package com.chess.pgn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+// This class is one game read from a PGN file: its tag pairs, its main line in standard algebraic notation
+// and its result. Comments, variations and annotations are dropped while reading.
+public final class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    PgnGame(final Map<String, String> tags,
+            final List<String> moves,
+            final String result) {
+        this.tags = ImmutableMap.copyOf(tags);
+        this.moves = ImmutableList.copyOf(moves);
+        this.result = result;
+    }
+
+    // Return: the value of the tag, or null if the game has no such tag
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    // Return: the moves of the main line in standard algebraic notation, check marks and annotations removed
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    // Return: "1-0", "0-1", "1/2-1/2" or "*" for a game that did not finish
+    public String getResult() {
+        return this.result;
+    }
+
+    // Return: the score of the game for white, 1 for a win, 0.5 for a draw and 0 for a loss, or -1 if unfinished
+    public double getWhiteScore() {
+        switch (this.result) {
+            case "1-0":
+                return 1;
+            case "0-1":
+                return 0;
+            case "1/2-1/2":
+                return 0.5;
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.getOrDefault("White", "?") + " - " + this.tags.getOrDefault("Black", "?") + " " + this.result;
+    }
+}
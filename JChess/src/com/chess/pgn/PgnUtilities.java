@@ -0,0 +1,203 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// This class reads games from PGN text and finds the moves their standard algebraic notation stands for.
+// Only the main line is kept: comments, variations, numeric annotation glyphs and move numbers are skipped.
+public class PgnUtilities {
+
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private PgnUtilities() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    // Behavior: reads every game of the PGN text, handing each one to the consumer as soon as it is complete,
+    //           so a large file is never held in memory whole
+    public static void readGames(final Reader reader,
+                                 final Consumer<PgnGame> consumer) throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        final List<String> moves = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        int variationDepth = 0;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '{') {
+                skipPast(reader, '}');
+            } else if (c == ';') {
+                skipPast(reader, '\n');
+            } else if (c == '(') {
+                variationDepth++;
+            } else if (c == ')') {
+                variationDepth = Math.max(0, variationDepth - 1);
+            } else if (variationDepth > 0) {
+                continue;
+            } else if (c == '[') {
+                if (!moves.isEmpty()) {
+                    // a game without a result token
+                    consumer.accept(new PgnGame(tags, moves, "*"));
+                    tags.clear();
+                    moves.clear();
+                }
+                readTag(reader, tags);
+            } else if (Character.isWhitespace(c)) {
+                if (endToken(token, tags, moves, consumer)) {
+                    tags.clear();
+                    moves.clear();
+                }
+            } else {
+                token.append((char) c);
+            }
+        }
+        if (!endToken(token, tags, moves, consumer) && !moves.isEmpty()) {
+            consumer.accept(new PgnGame(tags, moves, "*"));
+        }
+    }
+
+    // Return: every game of the PGN text
+    public static List<PgnGame> readGames(final Reader reader) throws IOException {
+        final List<PgnGame> games = new ArrayList<>();
+        readGames(reader, games::add);
+        return games;
+    }
+
+    // Return: the legal move of the side to move written in standard algebraic notation, such as "Nbd7", "exd5",
+    //         "O-O" or "e8=Q", or the null move if there is none. Only promotions to a queen are found, the
+    //         engine promotes to nothing else.
+    public static Move findMove(final Board board,
+                                final String san) {
+        final String text = san.replaceAll("[+#!?]", "");
+        if (text.equals("O-O") || text.equals("0-0") || text.equals("O-O-O") || text.equals("0-0-0")) {
+            final boolean kingSide = text.length() == 3;
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                if (move.isCastlingMove() && (move instanceof Move.KingSideCastleMove) == kingSide && isLegal(board, move)) {
+                    return move;
+                }
+            }
+            return Move.MoveFactory.getNullMove();
+        }
+        String squares = text;
+        boolean promotion = false;
+        final int promotionIndex = squares.indexOf('=');
+        if (promotionIndex >= 0) {
+            if (!squares.substring(promotionIndex + 1).equals("Q")) {
+                return Move.MoveFactory.getNullMove();
+            }
+            squares = squares.substring(0, promotionIndex);
+            promotion = true;
+        }
+        if (squares.length() < 2) {
+            return Move.MoveFactory.getNullMove();
+        }
+        final Piece.PieceType pieceType = pieceType(squares.charAt(0));
+        if (pieceType != Piece.PieceType.PAWN) {
+            squares = squares.substring(1);
+        }
+        final String destination = squares.substring(squares.length() - 2);
+        if (!BoardUtils.POSITION_TO_COORDINATE.containsKey(destination)) {
+            return Move.MoveFactory.getNullMove();
+        }
+        final int destinationCoordinate = BoardUtils.getCoordinateAtPosition(destination);
+        final String disambiguation = squares.substring(0, squares.length() - 2).replace("x", "");
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getMovedPiece().getPieceType() == pieceType &&
+                    move.getDestinationCoordinate() == destinationCoordinate &&
+                    (move instanceof Move.PawnPromotion) == promotion &&
+                    matches(move.getCurrentCoordinate(), disambiguation) &&
+                    isLegal(board, move)) {
+                return move;
+            }
+        }
+        return Move.MoveFactory.getNullMove();
+    }
+
+    // Return: true if the token ended the game
+    private static boolean endToken(final StringBuilder token,
+                                    final Map<String, String> tags,
+                                    final List<String> moves,
+                                    final Consumer<PgnGame> consumer) {
+        if (token.length() == 0) {
+            return false;
+        }
+        final String text = token.toString();
+        token.setLength(0);
+        for (final String result : RESULTS) {
+            if (text.equals(result)) {
+                consumer.accept(new PgnGame(tags, moves, result));
+                return true;
+            }
+        }
+        if (text.charAt(0) == '$') {
+            return false;
+        }
+        // a move number, "12." or "12...", possibly written against the move
+        final String move = text.replaceFirst("^\\d+\\.+", "");
+        if (!move.isEmpty()) {
+            moves.add(move.replaceAll("[+#!?]", ""));
+        }
+        return false;
+    }
+
+    private static void readTag(final Reader reader,
+                                final Map<String, String> tags) throws IOException {
+        final StringBuilder tag = new StringBuilder();
+        boolean quoted = false;
+        int c;
+        while ((c = reader.read()) != -1 && (c != ']' || quoted)) {
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            tag.append((char) c);
+        }
+        final String text = tag.toString().trim();
+        final int space = text.indexOf(' ');
+        if (space > 0) {
+            tags.put(text.substring(0, space), text.substring(space + 1).trim().replaceAll("^\"|\"$", ""));
+        }
+    }
+
+    private static void skipPast(final Reader reader,
+                                 final char end) throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != end) {
+            // skipping
+        }
+    }
+
+    private static Piece.PieceType pieceType(final char letter) {
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            if (pieceType != Piece.PieceType.PAWN && pieceType.toString().charAt(0) == letter) {
+                return pieceType;
+            }
+        }
+        return Piece.PieceType.PAWN;
+    }
+
+    // Return: true if the square fits the file and rank given to tell the move from another one
+    private static boolean matches(final int coordinate,
+                                   final String disambiguation) {
+        final String position = BoardUtils.getPositionAtCoordinate(coordinate);
+        for (final char c : disambiguation.toCharArray()) {
+            if (position.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLegal(final Board board,
+                                   final Move move) {
+        return board.currentPlayer().makeMove(move).getMoveStatus().isDone();
+    }
+}
@@ -10,6 +10,7 @@ import org.junit.runners.Suite;
                      TestPlayer.class,
                      TestCheckmate.class,
                      TestAlphaBeta.class, // TODO need to debug
+                     TestMonteCarloTreeSearch.class,
                      TestCastling.class,
                      TestPawnStructure.class,
                      TestFENParser.class})
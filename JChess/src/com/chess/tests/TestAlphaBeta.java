@@ -7,12 +7,39 @@ import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.pieces.*;
+import com.chess.engine.player.ai.AnalysisSession;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.CachingBoardEvaluator;
+import com.chess.engine.player.ai.EvalBreakdown;
+import com.chess.engine.player.ai.MateScores;
+import com.chess.engine.player.ai.MovePicker;
 import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.MultiPvResult;
+import com.chess.engine.player.ai.SearchConfiguration;
+import com.chess.engine.player.ai.SearchController;
+import com.chess.engine.player.ai.SearchEvent;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.StaticExchange;
 import com.chess.engine.player.ai.StockAlphaBeta;
 import com.chess.pgn.FenUtilities;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class TestAlphaBeta {
@@ -398,4 +425,398 @@ public class TestAlphaBeta {
         assertTrue(t1.getMoveStatus().isDone());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testParallelRootSplitAgreesWithSerial() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final Move serialMove = new StockAlphaBeta(4).execute(board);
+        final Move parallelMove = new StockAlphaBeta(4, 3).execute(board);
+        assertEquals(serialMove, parallelMove);
+    }
+
+    @Test
+    public void testHardDeadlineReturnsBestMoveSoFar() {
+        final Board board = Board.createStandardBoard();
+        final SearchLimits limits = new SearchLimits.Builder()
+                .setDepth(SearchLimits.MAX_SEARCH_DEPTH)
+                .setSoftTimeMillis(250)
+                .setHardTimeMillis(500)
+                .build();
+        final long start = System.currentTimeMillis();
+        final Move bestMove = new StockAlphaBeta(6).execute(board, limits);
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertTrue(board.currentPlayer().makeMove(bestMove).getMoveStatus().isDone());
+    }
+
+    @Test
+    public void testStoppedSearchStillReturnsLegalMove() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final SearchController controller = new SearchController(SearchLimits.ofDepth(8));
+        controller.stop();
+        final Move bestMove = new StockAlphaBeta(8).execute(board, controller);
+        assertTrue(board.currentPlayer().makeMove(bestMove).getMoveStatus().isDone());
+    }
+
+    @Test
+    public void testSearchResultCarriesStats() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final StockAlphaBeta strategy = new StockAlphaBeta(3);
+        final SearchResult result = strategy.search(board, new SearchController(SearchLimits.ofDepth(3)));
+        assertEquals(3, result.getDepth());
+        assertEquals(3, result.getStats().getIterations().size());
+        assertTrue(result.getStats().getNodes() > 0);
+        assertTrue(result.getStats().getMaxDepth() >= 3);
+        assertTrue(board.currentPlayer().makeMove(result.getBestMove()).getMoveStatus().isDone());
+        assertEquals(result.getStats(), strategy.getSearchStats());
+    }
+
+    @Test
+    public void testPonderingIgnoresDeadlinesUntilPonderHit() throws InterruptedException {
+        final Board board = Board.createStandardBoard();
+        final StockAlphaBeta strategy = new StockAlphaBeta(3);
+        final SearchResult result = strategy.search(board, new SearchController(SearchLimits.ofDepth(3)));
+        assertEquals(result.getBestMove(), result.getPrincipalVariation().get(0));
+        final MoveTransition reply = result.getBestMove().execute().currentPlayer().makeMove(result.getPonderMove());
+        assertTrue(reply.getMoveStatus().isDone());
+
+        final SearchController controller = SearchController.pondering(SearchLimits.ofTime(1, 1));
+        final AtomicReference<SearchResult> ponderResult = new AtomicReference<>();
+        final Thread ponder = new Thread(() -> ponderResult.set(strategy.search(reply.getTransitionBoard(), controller)));
+        ponder.start();
+        ponder.join(300);
+        assertTrue(ponder.isAlive());
+        assertTrue(controller.isPondering());
+
+        controller.ponderHit();
+        ponder.join(5000);
+        assertFalse(ponder.isAlive());
+        assertFalse(controller.isPondering());
+        assertTrue(reply.getTransitionBoard().currentPlayer().makeMove(ponderResult.get().getBestMove())
+                .getMoveStatus().isDone());
+    }
+
+    @Test
+    public void testSearchEventsArePublished() throws InterruptedException {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final StockAlphaBeta strategy = new StockAlphaBeta(3);
+        final List<SearchEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch bestMoveSeen = new CountDownLatch(1);
+        strategy.getSearchEvents().subscribe(new Flow.Subscriber<SearchEvent>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final SearchEvent event) {
+                events.add(event);
+                if (event.getType() == SearchEvent.Type.BEST_MOVE) {
+                    bestMoveSeen.countDown();
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        final Move bestMove = strategy.execute(board);
+        assertTrue(bestMoveSeen.await(10, TimeUnit.SECONDS));
+        int iterations = 0;
+        SearchEvent.PrincipalVariation lastLine = null;
+        for (final SearchEvent event : events) {
+            if (event.getType() == SearchEvent.Type.ITERATION_COMPLETE) {
+                iterations++;
+            } else if (event.getType() == SearchEvent.Type.PRINCIPAL_VARIATION) {
+                lastLine = (SearchEvent.PrincipalVariation) event;
+            }
+        }
+        assertEquals(3, iterations);
+        assertEquals(bestMove, lastLine.getLine().get(0));
+        assertEquals(bestMove, ((SearchEvent.BestMove) events.get(events.size() - 1)).getMove());
+    }
+
+    @Test
+    public void testAnalysisRestartsAndReusesTranspositionTable() throws InterruptedException {
+        final Board opening = Board.createStandardBoard();
+        final Board ending = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+        final AnalysisSession session = new AnalysisSession();
+        final BlockingQueue<SearchEvent.IterationComplete> iterations = new LinkedBlockingQueue<>();
+        session.getSearchEvents().subscribe(new Flow.Subscriber<SearchEvent>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final SearchEvent event) {
+                if (event.getType() == SearchEvent.Type.ITERATION_COMPLETE) {
+                    iterations.add((SearchEvent.IterationComplete) event);
+                }
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        try {
+            session.analyze(opening);
+            final SearchEvent.IterationComplete cold = awaitIteration(iterations, opening, 4);
+            assertTrue(cold.getNodesPerSecond() > 0);
+            assertTrue(session.isAnalyzing());
+
+            session.analyze(ending);
+            assertEquals(2, awaitIteration(iterations, ending, 2).getLine().size());
+
+            session.analyze(opening);
+            final SearchEvent.IterationComplete warm = awaitIteration(iterations, opening, 4);
+            assertTrue(warm.getTotalNodes() < cold.getTotalNodes());
+            final SearchResult result = session.stop();
+            assertFalse(session.isAnalyzing());
+            assertTrue(opening.currentPlayer().makeMove(result.getBestMove()).getMoveStatus().isDone());
+        } finally {
+            session.close();
+        }
+    }
+
+    // Return: the first iteration of the board's analysis at the depth, skipping those of earlier positions
+    private static SearchEvent.IterationComplete awaitIteration(final BlockingQueue<SearchEvent.IterationComplete> iterations,
+                                                                final Board board,
+                                                                final int depth) throws InterruptedException {
+        while (true) {
+            final SearchEvent.IterationComplete iteration = iterations.poll(30, TimeUnit.SECONDS);
+            assertTrue(iteration != null);
+            if (iteration.getDepth() == depth &&
+                    board.currentPlayer().getLegalMoves().contains(iteration.getBestMove())) {
+                return iteration;
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluationCacheIsTransparent() {
+        final Board board = FenUtilities.createGameFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final CachingBoardEvaluator cache = new CachingBoardEvaluator(StandardBoardEvaluator.get(), 1);
+        assertEquals(StandardBoardEvaluator.get().evaluate(board, 0), cache.evaluate(board, 0));
+        assertEquals(StandardBoardEvaluator.get().evaluate(board, 0), cache.evaluate(board, 0));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        final SearchConfiguration uncached = new SearchConfiguration.Builder().setEvaluationCacheSize(0).build();
+        final SearchResult plain = new StockAlphaBeta(3, 1, uncached).search(board,
+                new SearchController(SearchLimits.ofDepth(3)));
+        final StockAlphaBeta strategy = new StockAlphaBeta(3);
+        final SearchResult cached = strategy.search(board, new SearchController(SearchLimits.ofDepth(3)));
+        assertEquals(plain.getBestMove(), cached.getBestMove());
+        assertEquals(plain.getScore(), cached.getScore());
+        assertEquals(plain.getStats().getNodes(), cached.getStats().getNodes());
+        assertTrue(((CachingBoardEvaluator) strategy.getEvaluator()).getHits() > 0);
+    }
+
+    @Test
+    public void testLazyEvaluationExitsEarly() {
+        // white is a queen up with most pieces still on the board
+        final Board board = FenUtilities.createGameFromFEN("r1b1kbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 4");
+        final StandardBoardEvaluator evaluator = StandardBoardEvaluator.get();
+        final int score = evaluator.evaluate(board, 0);
+        final int lowerBound = evaluator.lazyBound(board, 0, -100, 0);
+        assertNotEquals(BoardEvaluator.UNDECIDED, lowerBound);
+        assertTrue(lowerBound >= 0 && lowerBound <= score);
+        final int upperBound = evaluator.lazyBound(board, 0, 2000, 2100);
+        assertNotEquals(BoardEvaluator.UNDECIDED, upperBound);
+        assertTrue(upperBound <= 2000 && upperBound >= score);
+        assertEquals(BoardEvaluator.UNDECIDED, evaluator.lazyBound(board, 0, score - 1, score + 1));
+        assertEquals(score, evaluator.evaluate(board, 0, score - 1, score + 1));
+
+        final Board middlegame = FenUtilities.createGameFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final SearchConfiguration eager = new SearchConfiguration.Builder().setLazyEvaluation(false).build();
+        final SearchResult full = new StockAlphaBeta(3, 1, eager).search(middlegame,
+                new SearchController(SearchLimits.ofDepth(3)));
+        final SearchResult lazy = new StockAlphaBeta(3).search(middlegame, new SearchController(SearchLimits.ofDepth(3)));
+        assertEquals(0, full.getStats().getLazyEvaluations());
+        assertTrue(lazy.getStats().getLazyEvaluations() > 0);
+        assertEquals(full.getBestMove(), lazy.getBestMove());
+    }
+
+    @Test
+    public void testEvalBreakdownProfilesTerms() {
+        final Board board = FenUtilities.createGameFromFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        final EvalBreakdown single = StandardBoardEvaluator.breakdown(board, 0);
+        assertEquals(StandardBoardEvaluator.get().evaluate(board, 0), single.getScore());
+        assertEquals(1, single.getEvaluations());
+        for (final EvalBreakdown.Term term : EvalBreakdown.Term.values()) {
+            assertEquals(2, single.getCalls(term));
+        }
+
+        final EvalBreakdown profile = new EvalBreakdown();
+        final SearchResult profiled = new StockAlphaBeta(3, 1, SearchConfiguration.DEFAULT,
+                StandardBoardEvaluator.profiling(profile)).search(board, new SearchController(SearchLimits.ofDepth(3)));
+        final SearchResult plain = new StockAlphaBeta(3).search(board, new SearchController(SearchLimits.ofDepth(3)));
+        assertEquals(plain.getBestMove(), profiled.getBestMove());
+        assertTrue(profile.getEvaluations() > 0);
+        assertEquals(2 * profile.getEvaluations(), profile.getCalls(EvalBreakdown.Term.ATTACKS));
+        // the cheap terms are also computed for every lazy exit
+        assertTrue(profiled.getStats().getLazyEvaluations() > 0);
+        assertTrue(profile.getCalls(EvalBreakdown.Term.MOBILITY) >=
+                2 * (profile.getEvaluations() + profiled.getStats().getLazyEvaluations()));
+        assertTrue(profile.getTotalNanos() > 0);
+        profile.reset();
+        assertEquals(0, profile.getCalls(EvalBreakdown.Term.MOBILITY));
+    }
+
+    @Test
+    public void testFutilityPruningAndRazoringSaveNodes() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final SearchConfiguration withoutPruning = new SearchConfiguration.Builder()
+                .setFutilityPruning(false)
+                .setRazoring(false)
+                .setCheckExtensions(false)
+                .setSingularExtensions(false)
+                .build();
+        final SearchConfiguration withPruning = new SearchConfiguration.Builder()
+                .setCheckExtensions(false)
+                .setSingularExtensions(false)
+                .build();
+        final SearchResult plain = new StockAlphaBeta(4, 1, withoutPruning)
+                .search(board, new SearchController(SearchLimits.ofDepth(4)));
+        final SearchResult pruned = new StockAlphaBeta(4, 1, withPruning)
+                .search(board, new SearchController(SearchLimits.ofDepth(4)));
+        assertEquals(plain.getBestMove(), pruned.getBestMove());
+        assertEquals(0, plain.getStats().getFutilityPrunes());
+        assertTrue(pruned.getStats().getFutilityPrunes() > 0);
+        assertTrue(pruned.getStats().getNodes() < plain.getStats().getNodes());
+    }
+
+    @Test
+    public void testCheckExtensionsFindSmotheredMate() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final SearchConfiguration withoutExtensions = new SearchConfiguration.Builder()
+                .setCheckExtensions(false)
+                .setSingularExtensions(false)
+                .build();
+        final SearchResult plain = new StockAlphaBeta(4, 1, withoutExtensions)
+                .search(board, new SearchController(SearchLimits.ofDepth(4)));
+        final SearchResult extended = new StockAlphaBeta(4, 1, SearchConfiguration.DEFAULT)
+                .search(board, new SearchController(SearchLimits.ofDepth(4)));
+        assertEquals(0, plain.getStats().getCheckExtensions());
+        assertTrue(extended.getStats().getCheckExtensions() > 0);
+        assertTrue(extended.getStats().getTranspositionHits() > 0);
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("f7"),
+                BoardUtils.getCoordinateAtPosition("h6")), extended.getBestMove());
+        assertTrue(extended.getScore() > plain.getScore());
+    }
+
+    @Test
+    public void testMateInNIsReported() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0");
+        final SearchResult result = new StockAlphaBeta(6).search(board, new SearchController(SearchLimits.ofDepth(6)));
+        assertTrue(result.isMate());
+        assertEquals(3, result.getMateIn());
+        assertTrue(result.getDepth() < 6);
+        assertTrue(result.toString().contains("mate in 3"));
+    }
+
+    @Test
+    public void testMultiPvRanksDistinctRootMoves() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        final MultiPvResult result = new StockAlphaBeta(3).searchMultiPv(board,
+                new SearchController(SearchLimits.ofDepth(3)), 3);
+        assertEquals(3, result.getLines().size());
+        assertEquals(3, result.getDepth());
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d2"),
+                BoardUtils.getCoordinateAtPosition("d5")), result.getLine(0).getMove());
+        assertEquals(result.getLine(0).getMove(), result.getBestResult().getBestMove());
+        assertEquals(result.getLine(0).getScore(), result.getBestResult().getScore());
+        for (int i = 0; i < result.getLines().size(); i++) {
+            final MultiPvResult.Line line = result.getLine(i);
+            assertEquals(line.getMove(), line.getPrincipalVariation().get(0));
+            for (int j = 0; j < i; j++) {
+                assertTrue(result.getLine(j).getMove() != line.getMove());
+                assertTrue(result.getLine(j).getScore() >= line.getScore());
+            }
+        }
+        final MultiPvResult kingMoves = new StockAlphaBeta(2).searchMultiPv(
+                FenUtilities.createGameFromFEN("7k/8/8/8/8/8/7p/K7 w - - 0 1"), new SearchController(SearchLimits.ofDepth(2)), 5);
+        assertEquals(3, kingMoves.getLines().size());
+    }
+
+    @Test
+    public void testStaticExchange() {
+        assertEquals(500, exchange("4k3/8/8/3r4/8/8/8/3QK3 w - - 0 1", "d1", "d5"));
+        assertEquals(-400, exchange("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+        assertEquals(100, exchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+        assertEquals(0, exchange("4k3/8/8/8/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+    }
+
+    @Test
+    public void testMovePickerStages() {
+        // exd5 and Nxd5 win or trade the knight, Nxb5 and Qxd5 lose material to cxb5 and cxd5
+        final Board board = FenUtilities.createGameFromFEN("7k/8/2p5/1p1n4/4P3/2N5/8/3Q3K w - - 0 1");
+        final Move ttMove = move(board, "d1", "h5");
+        final Move[] killers = {move(board, "h1", "g1"), move(board, "c3", "a4")};
+        final int[] historyScores = new int[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        historyScores[historyIndex("d1", "d4")] = 500;
+        historyScores[historyIndex("c3", "e2")] = 200;
+        final MovePicker picker = new MovePicker();
+        picker.reset(board, ttMove, killers, historyScores, false);
+        final List<Move> moves = new ArrayList<>();
+        for (Move move = picker.next(); move != null; move = picker.next()) {
+            moves.add(move);
+        }
+        assertEquals(board.currentPlayer().getLegalMoves().size(), moves.size());
+        assertEquals(ttMove, moves.get(0));
+        assertEquals(move(board, "e4", "d5"), moves.get(1));
+        assertEquals(move(board, "c3", "d5"), moves.get(2));
+        assertEquals(killers[0], moves.get(3));
+        assertEquals(killers[1], moves.get(4));
+        assertEquals(move(board, "d1", "d4"), moves.get(5));
+        assertEquals(move(board, "c3", "e2"), moves.get(6));
+        assertEquals(move(board, "c3", "b5"), moves.get(moves.size() - 2));
+        assertEquals(move(board, "d1", "d5"), moves.get(moves.size() - 1));
+
+        // futility pruning leaves out every quiet move, the quiet transposition table move included
+        picker.reset(board, ttMove, killers, historyScores, true);
+        assertEquals(move(board, "e4", "d5"), picker.next());
+        assertEquals(move(board, "c3", "d5"), picker.next());
+        assertEquals(move(board, "c3", "b5"), picker.next());
+        assertEquals(move(board, "d1", "d5"), picker.next());
+        assertNull(picker.next());
+        assertEquals(moves.size() - 4, picker.getSkippedQuiets());
+    }
+
+    private static Move move(final Board board,
+                             final String from,
+                             final String to) {
+        return Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(from),
+                BoardUtils.getCoordinateAtPosition(to));
+    }
+
+    private static int historyIndex(final String from,
+                                    final String to) {
+        return BoardUtils.getCoordinateAtPosition(from) * BoardUtils.NUM_TILES + BoardUtils.getCoordinateAtPosition(to);
+    }
+
+    private static int exchange(final String fen,
+                                final String from,
+                                final String to) {
+        final Board board = FenUtilities.createGameFromFEN(fen);
+        return StaticExchange.evaluate(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition(from),
+                BoardUtils.getCoordinateAtPosition(to)));
+    }
+
+    @Test
+    public void testMateScores() {
+        assertEquals(1, MateScores.mateIn(MateScores.MATE - 1));
+        assertEquals(2, MateScores.mateIn(MateScores.MATE - 3));
+        assertEquals(-1, MateScores.mateIn(-MateScores.MATE + 2));
+        assertEquals("mated in 1", MateScores.format(-MateScores.MATE + 2));
+        assertEquals("45", MateScores.format(45));
+    }
+
+}
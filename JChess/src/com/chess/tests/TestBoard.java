@@ -6,11 +6,32 @@ import com.chess.engine.board.Board.Builder;
 import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.pieces.*;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.AttackSets;
 import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.KingSafetyAnalyzer;
+import com.chess.engine.player.ai.NnueEvaluator;
+import com.chess.engine.player.ai.NnueNetwork;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TexelTuner;
+import com.chess.engine.player.ai.TuningPositions;
+import com.chess.pgn.FenUtilities;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnUtilities;
 import com.google.common.collect.Iterables;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
 import static junit.framework.Assert.assertTrue;
 import static org.junit.Assert.*;
 
@@ -243,5 +264,257 @@ public class TestBoard {
         return count;
     }
 
-}
+    @Test
+    public void testZobristHashTransposition() {
+        final Board board = Board.createStandardBoard();
+        final Board knightsFirst = play(board, "g1", "f3", "g8", "f6", "b1", "c3");
+        final Board knightsLast = play(board, "b1", "c3", "g8", "f6", "g1", "f3");
+        assertEquals(knightsFirst.getZobristHash(), knightsLast.getZobristHash());
+        assertEquals(board.getZobristHash(), play(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8").getZobristHash());
+        assertNotEquals(board.getZobristHash(), play(board, "g1", "f3").getZobristHash());
+        assertNotEquals(play(board, "e2", "e4").getZobristHash(), play(board, "e2", "e3", "e7", "e6", "e3", "e4").getZobristHash());
+    }
 
+    @Test
+    public void testRepetitionAndHalfmoveClock() {
+        final Board board = Board.createStandardBoard();
+        final Board shuffledOnce = play(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertEquals(4, shuffledOnce.getHalfmoveClock());
+        assertEquals(1, BoardUtils.countRepetitions(shuffledOnce));
+        assertFalse(BoardUtils.isThreefoldRepetition(shuffledOnce));
+        final Board shuffledTwice = play(shuffledOnce, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertEquals(2, BoardUtils.countRepetitions(shuffledTwice));
+        assertTrue(BoardUtils.isThreefoldRepetition(shuffledTwice));
+        final Board pawnMoved = play(shuffledTwice, "e2", "e4");
+        assertEquals(0, pawnMoved.getHalfmoveClock());
+        assertEquals(0, BoardUtils.countRepetitions(pawnMoved));
+        assertFalse(BoardUtils.isFiftyMoveRule(pawnMoved));
+        final Board fromFen = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/8/4K2R w - - 99 80");
+        assertEquals(99, fromFen.getHalfmoveClock());
+        assertFalse(BoardUtils.isFiftyMoveRule(fromFen));
+        assertTrue(BoardUtils.isFiftyMoveRule(play(fromFen, "h1", "h2")));
+    }
+
+    @Test
+    public void testIncrementalPieceSquareScores() {
+        final String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2P3k1/8/8/8/8/1p4K1/8 w - - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+        };
+        final List<Move> played = new ArrayList<>();
+        long seed = 41;
+        for (final String fen : fens) {
+            for (int game = 0; game < 10; game++) {
+                randomWalk(FenUtilities.createGameFromFEN(fen), seed++, 80, board -> {
+                    played.add(board.getTransitionMove());
+                    assertPieceSquareScores(board, Alliance.WHITE, board.getWhitePieces());
+                    assertPieceSquareScores(board, Alliance.BLACK, board.getBlackPieces());
+                    final Board fromFen = FenUtilities.createGameFromFEN(FenUtilities.createFENFromGame(board));
+                    assertEquals(fromFen.getPawnZobristHash(), board.getPawnZobristHash());
+                    assertEquals(fromFen.getPhase(), board.getPhase());
+                });
+            }
+        }
+        assertTrue(played.stream().anyMatch(Move::isCastlingMove));
+        assertTrue(played.stream().anyMatch(move -> move instanceof Move.PawnPromotion));
+        final Board enPassant = play(Board.createStandardBoard(), "e2", "e4", "a7", "a6", "e4", "e5", "d7", "d5", "e5", "d6");
+        assertTrue(enPassant.getTransitionMove() instanceof Move.PawnEnPassantAttackMove);
+        assertPieceSquareScores(enPassant, Alliance.WHITE, enPassant.getWhitePieces());
+        assertPieceSquareScores(enPassant, Alliance.BLACK, enPassant.getBlackPieces());
+        assertEquals(TaperedScore.MAX_PHASE, enPassant.getPhase());
+        assertEquals(0, FenUtilities.createGameFromFEN(fens[1]).getPhase());
+    }
+
+    @Test
+    public void testAttackSetsMatchMoveLists() {
+        long seed = 44;
+        for (final String fen : new String[] {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2P3k1/8/8/8/8/1p4K1/8 w - - 0 1", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"}) {
+            randomWalk(FenUtilities.createGameFromFEN(fen), seed++, 60, board -> {
+                final AttackSets sets = new AttackSets(board);
+                for (final Player player : new Player[] {board.whitePlayer(), board.blackPlayer()}) {
+                    int moves = 0;
+                    int favourableAttacks = 0;
+                    for (final Move move : player.getLegalMoves()) {
+                        if (!move.isCastlingMove() && !(move instanceof Move.PawnEnPassantAttackMove)) {
+                            moves++;
+                            if (move.isAttack() && move.getMovedPiece().getPieceValue() <= move.getAttackedPiece().getPieceValue()) {
+                                favourableAttacks++;
+                            }
+                        }
+                    }
+                    assertEquals(moves, sets.getMobility(player.getAlliance()));
+                    assertEquals(favourableAttacks, sets.getFavourableAttacks(player.getAlliance()));
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testKingZoneAttacks() {
+        assertEquals(7, KingSafetyAnalyzer.distance(0, 63));
+        assertEquals(7, KingSafetyAnalyzer.distance(63, 0));
+        assertEquals(0, KingSafetyAnalyzer.distance(36, 36));
+        assertEquals(2, KingSafetyAnalyzer.distance(BoardUtils.getCoordinateAtPosition("e1"),
+                BoardUtils.getCoordinateAtPosition("g2")));
+        // a white king on g1 looks two rows up the board and one down, three columns wide, the back rank cut off
+        final long zone = KingSafetyAnalyzer.kingZone(Alliance.WHITE, BoardUtils.getCoordinateAtPosition("g1"));
+        assertEquals(9, Long.bitCount(zone));
+        assertTrue((zone & 1L << BoardUtils.getCoordinateAtPosition("h3")) != 0);
+        assertTrue((zone & 1L << BoardUtils.getCoordinateAtPosition("g4")) == 0);
+
+        final KingSafetyAnalyzer analyzer = KingSafetyAnalyzer.get();
+        final Board quiet = FenUtilities.createGameFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        final AttackSets quietSets = new AttackSets(quiet);
+        assertEquals(0, quietSets.getKingZoneAttackers(Alliance.WHITE));
+        assertEquals(0, analyzer.kingZoneSafety(quietSets, Alliance.WHITE));
+
+        // the queen on h4 and the rook on g8 both aim at the squares in front of the white king
+        final Board attacked = FenUtilities.createGameFromFEN("4k1r1/8/8/8/7q/8/5PP1/6K1 w - - 0 1");
+        final AttackSets attackedSets = new AttackSets(attacked);
+        assertEquals(2, attackedSets.getKingZoneAttackers(Alliance.WHITE));
+        assertTrue(analyzer.kingZoneSafety(attackedSets, Alliance.WHITE) < 0);
+        assertEquals(0, analyzer.kingZoneSafety(attackedSets, Alliance.BLACK));
+
+        for (final Board board : new Board[] {quiet, attacked}) {
+            for (final Player player : new Player[] {board.whitePlayer(), board.blackPlayer()}) {
+                final int king = player.getPlayerKing().getPiecePosition();
+                Move closest = null;
+                for (final Move move : player.getOpponent().getLegalMoves()) {
+                    if (closest == null || KingSafetyAnalyzer.distance(king, move.getDestinationCoordinate()) <
+                            KingSafetyAnalyzer.distance(king, closest.getDestinationCoordinate())) {
+                        closest = move;
+                    }
+                }
+                assertEquals(closest.getMovedPiece().getPieceValue() / 100 *
+                        KingSafetyAnalyzer.distance(king, closest.getDestinationCoordinate()), analyzer.kingTropism(player));
+            }
+        }
+    }
+
+    @Test
+    public void testNnueAccumulatorsMatchRefresh() throws IOException {
+        final Random random = new Random(46);
+        final int hiddenSize = 32;
+        final short[] featureWeights = new short[NnueNetwork.NUM_FEATURES * hiddenSize];
+        final short[] featureBiases = new short[hiddenSize];
+        final short[] outputWeights = new short[2 * hiddenSize];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = (short) (random.nextInt(41) - 20);
+        }
+        for (int i = 0; i < hiddenSize; i++) {
+            featureBiases[i] = (short) random.nextInt(64);
+            outputWeights[i] = (short) (random.nextInt(81) - 40);
+            outputWeights[hiddenSize + i] = (short) (random.nextInt(81) - 40);
+        }
+        final Path file = Files.createTempFile("network", ".nnue");
+        final NnueEvaluator evaluator;
+        try {
+            new NnueNetwork(hiddenSize, featureWeights, featureBiases, outputWeights, 1234).save(file);
+            evaluator = NnueEvaluator.load(file);
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(hiddenSize, evaluator.getNetwork().getHiddenSize());
+        randomWalk(Board.createStandardBoard(), 46, 120, board -> {
+            final Board fromFen = FenUtilities.createGameFromFEN(FenUtilities.createFENFromGame(board));
+            assertEquals(new NnueEvaluator(evaluator.getNetwork()).evaluate(fromFen, 0), evaluator.evaluate(board, 0));
+        });
+        assertEquals(1, evaluator.getRefreshes());
+        assertTrue(evaluator.getUpdates() > 0);
+    }
+
+    @Test
+    public void testTuningPositionsReproduceEvaluator() throws IOException {
+        final TuningPositions positions = new TuningPositions();
+        final List<Board> boards = new ArrayList<>();
+        for (int file = 1; file <= 10; file++) {
+            final List<PgnGame> games;
+            try (final Reader reader = new InputStreamReader(TestBoard.class.getResourceAsStream("pgn/t" + file + ".pgn"),
+                    StandardCharsets.ISO_8859_1)) {
+                games = PgnUtilities.readGames(reader);
+            }
+            for (final PgnGame game : games) {
+                Board board = Board.createStandardBoard();
+                for (final String san : game.getMoves()) {
+                    final Move move = PgnUtilities.findMove(board, san);
+                    if (move == MoveFactory.getNullMove()) {
+                        break;
+                    }
+                    if (game.getWhiteScore() >= 0 && positions.add(board, game.getWhiteScore())) {
+                        boards.add(board);
+                    }
+                    board = move.execute();
+                }
+            }
+        }
+        assertTrue(positions.size() > 200);
+        final TexelTuner tuner = new TexelTuner(positions, 2);
+        for (int i = 0; i < positions.size(); i++) {
+            // the evaluator rounds each side's blend of the midgame and endgame tables down to a centipawn
+            assertEquals(StandardBoardEvaluator.get().evaluate(boards.get(i), 0), tuner.evaluate(i), 1);
+        }
+        tuner.fitScalingConstant();
+        final double error = tuner.error();
+        tuner.tune(50);
+        assertTrue(tuner.error() < error);
+    }
+
+    private static void assertPieceSquareScores(final Board board,
+                                                final Alliance alliance,
+                                                final Iterable<Piece> pieces) {
+        int midgame = 0;
+        int endgame = 0;
+        int bishops = 0;
+        for (final Piece piece : pieces) {
+            midgame += piece.getPieceValue() + piece.locationBonus();
+            endgame += piece.getPieceValue() + piece.endgameLocationBonus();
+            if (piece.getPieceType() == Piece.PieceType.BISHOP) {
+                bishops++;
+            }
+        }
+        assertEquals(midgame, TaperedScore.midgame(board.getPieceSquareScore(alliance)));
+        assertEquals(endgame, TaperedScore.endgame(board.getPieceSquareScore(alliance)));
+        assertEquals(bishops, board.getBishopCount(alliance));
+    }
+
+    private static Board play(final Board board,
+                              final String... squares) {
+        Board current = board;
+        for (int i = 0; i < squares.length; i += 2) {
+            final MoveTransition transition = current.currentPlayer().makeMove(MoveFactory.createMove(current,
+                    BoardUtils.getCoordinateAtPosition(squares[i]), BoardUtils.getCoordinateAtPosition(squares[i + 1])));
+            assertTrue(transition.getMoveStatus().isDone());
+            current = transition.getTransitionBoard();
+        }
+        return current;
+    }
+
+    // Behavior: plays up to the given number of random legal moves from the board, stopping early at mate or
+    //           stalemate, and runs the check on the starting board and on every board reached
+    // Return: the last board reached
+    private static Board randomWalk(final Board board,
+                                    final long seed,
+                                    final int plies,
+                                    final Consumer<Board> perPositionCheck) {
+        final Random random = new Random(seed);
+        Board current = board;
+        perPositionCheck.accept(current);
+        for (int ply = 0; ply < plies; ply++) {
+            final List<Move> legalMoves = new ArrayList<>();
+            for (final Move move : current.currentPlayer().getLegalMoves()) {
+                if (current.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    legalMoves.add(move);
+                }
+            }
+            if (legalMoves.isEmpty()) {
+                break;
+            }
+            current = legalMoves.get(random.nextInt(legalMoves.size())).execute();
+            perPositionCheck.accept(current);
+        }
+        return current;
+    }
+
+}
@@ -11,10 +11,13 @@ import com.chess.engine.pieces.*;
 import com.chess.engine.player.ai.MoveStrategy;
 //import com.chess.engine.player.ai.StockAlphaBeta;
 import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.ProofNumberResult;
+import com.chess.engine.player.ai.ProofNumberSearch;
 import com.chess.pgn.FenUtilities;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class TestCheckmate {
@@ -1022,4 +1025,49 @@ public class TestCheckmate {
                 .createMove(board, BoardUtils.getCoordinateAtPosition("d5"), BoardUtils.getCoordinateAtPosition("e3")));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testProofNumberMateInTwo() {
+        final Board board = FenUtilities.createGameFromFEN("6k1/1b4pp/1B1Q4/4p1P1/p3q3/2P3r1/P1P2PP1/R5K1 w - - 1 0");
+        final ProofNumberResult result = new ProofNumberSearch(2).solve(board);
+        assertTrue(result.isProven());
+        assertEquals(2, result.getMateIn());
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d6"),
+                BoardUtils.getCoordinateAtPosition("e6")), result.getBestMove());
+        assertTrue(playLine(board, result).currentPlayer().isInCheckMate());
+    }
+
+    @Test
+    public void testProofNumberMateInFour() {
+        final Board board = FenUtilities.createGameFromFEN("7k/4r2B/1pb5/2P5/4p2Q/2q5/2P2R2/1K6 w - - 1 0");
+        final ProofNumberResult result = new ProofNumberSearch(4).solve(board);
+        assertTrue(result.isProven());
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("f2"),
+                BoardUtils.getCoordinateAtPosition("f8")), result.getBestMove());
+        assertTrue(playLine(board, result).currentPlayer().isInCheckMate());
+    }
+
+    @Test
+    public void testProofNumberDisprovesAndRespectsBudget() {
+        final Board board = Board.createStandardBoard();
+        final ProofNumberResult result = new ProofNumberSearch(1).solve(board);
+        assertEquals(ProofNumberResult.Outcome.DISPROVEN, result.getOutcome());
+        assertTrue(result.getProofLine().isEmpty());
+        assertTrue(board.currentPlayer().makeMove(result.getBestMove()).getMoveStatus().isDone());
+        final ProofNumberResult unknown = new ProofNumberSearch(4, 100, 1000)
+                .solve(FenUtilities.createGameFromFEN("7k/4r2B/1pb5/2P5/4p2Q/2q5/2P2R2/1K6 w - - 1 0"));
+        assertEquals(ProofNumberResult.Outcome.UNKNOWN, unknown.getOutcome());
+        assertFalse(unknown.getNodes() > 200);
+    }
+
+    private static Board playLine(final Board board,
+                                  final ProofNumberResult result) {
+        Board current = board;
+        for (final Move move : result.getProofLine()) {
+            final MoveTransition transition = current.currentPlayer().makeMove(move);
+            assertTrue(transition.getMoveStatus().isDone());
+            current = transition.getTransitionBoard();
+        }
+        return current;
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.chess.tests;
 
 import com.chess.pgn.FenUtilities;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnUtilities;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -8,8 +10,14 @@ import com.chess.engine.player.MoveTransition;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 
@@ -40,4 +48,53 @@ public class TestFENParser {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testReadHalfmoveClock() {
+        assertEquals(12, FenUtilities.createGameFromFEN("6k1/8/8/8/8/8/8/5K2 b - - 12 40").getHalfmoveClock());
+        assertEquals(0, FenUtilities.createGameFromFEN("6k1/8/8/8/8/8/8/5K2 b - -").getHalfmoveClock());
+        // problem FENs sometimes put the game result where the clock goes
+        assertEquals(0, FenUtilities.createGameFromFEN("6k1/8/8/8/8/8/8/5K2 b - - 0-1").getHalfmoveClock());
+    }
+
+
+    @Test
+    public void testReadPgnGames() throws IOException {
+        final List<PgnGame> games;
+        try (final Reader reader = new InputStreamReader(TestFENParser.class.getResourceAsStream("pgn/t1.pgn"),
+                StandardCharsets.ISO_8859_1)) {
+            games = PgnUtilities.readGames(reader);
+        }
+        assertEquals(1, games.size());
+        final PgnGame game = games.get(0);
+        assertEquals("GM Evgenij Miroshnichenko", game.getTag("White"));
+        assertEquals("1-0", game.getResult());
+        assertEquals(1.0, game.getWhiteScore(), 0);
+        // the comment holding "[#]" is neither a tag nor a move
+        assertEquals(Integer.parseInt(game.getTag("PlyCount")), game.getMoves().size());
+        Board board = Board.createStandardBoard();
+        for (final String san : game.getMoves()) {
+            final Move move = PgnUtilities.findMove(board, san);
+            assertNotSame(san, Move.MoveFactory.getNullMove(), move);
+            board = move.execute();
+        }
+        assertTrue(board.currentPlayer().isInCheck());
+    }
+
+    @Test
+    public void testReadPgnMoveText() throws IOException {
+        final List<PgnGame> games = PgnUtilities.readGames(new StringReader(
+                "[Event \"a [bracketed] name\"]\n1. e4 $1 e5 (1... c5 2. Nf3 {Sicilian}) 2. Nf3 Nc6 ; a comment\n" +
+                "3.Bb5 a6 4. Ba4 Nf6 5. O-O 1/2-1/2\n\n[Event \"second\"]\n1. d4 *"));
+        assertEquals(2, games.size());
+        assertEquals("a [bracketed] name", games.get(0).getTag("Event"));
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O"), games.get(0).getMoves());
+        assertEquals(0.5, games.get(0).getWhiteScore(), 0);
+        assertEquals(-1, games.get(1).getWhiteScore(), 0);
+        Board board = Board.createStandardBoard();
+        for (final String san : games.get(0).getMoves()) {
+            board = PgnUtilities.findMove(board, san).execute();
+        }
+        assertTrue(board.blackPlayer().isCastled() || board.whitePlayer().isCastled());
+        assertEquals(Move.MoveFactory.getNullMove(), PgnUtilities.findMove(board, "Qh5"));
+    }
+}
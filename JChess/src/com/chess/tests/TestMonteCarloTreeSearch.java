@@ -0,0 +1,45 @@
+package com.chess.tests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.MonteCarloTreeSearch;
+import com.chess.engine.player.ai.MoveStrategy;
+import com.chess.engine.player.ai.SearchController;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.pgn.FenUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestMonteCarloTreeSearch {
+
+    @Test
+    public void testTakesHangingQueen() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        final MoveStrategy mcts = new MonteCarloTreeSearch(2000);
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("d2"),
+                BoardUtils.getCoordinateAtPosition("d5")), mcts.execute(board));
+        assertTrue(mcts.getNumBoardsEvaluated() > 0);
+    }
+
+    @Test
+    public void testParallelWorkersFindMateInOne() {
+        final Board board = FenUtilities.createGameFromFEN("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        final MoveStrategy mcts = new MonteCarloTreeSearch(3000, 4);
+        assertEquals(Move.MoveFactory.createMove(board, BoardUtils.getCoordinateAtPosition("a1"),
+                BoardUtils.getCoordinateAtPosition("a8")), mcts.execute(board));
+    }
+
+    @Test
+    public void testTimeLimitStopsSearch() {
+        final Board board = Board.createStandardBoard();
+        final SearchController controller = new SearchController(SearchLimits.ofTime(200, 400));
+        final long start = System.currentTimeMillis();
+        final Move move = new MonteCarloTreeSearch(Integer.MAX_VALUE, 2).execute(board, controller);
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertTrue(board.currentPlayer().makeMove(move).getMoveStatus().isDone());
+        assertEquals(move, controller.getBestMove());
+    }
+}
@@ -5,12 +5,14 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Pawn;
+import com.chess.engine.player.Player;
 import com.chess.engine.player.ai.PawnStructureAnalyzer;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
 import com.chess.pgn.FenUtilities;
 import org.junit.Test;
 
-import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 public class TestPawnStructure {
 
@@ -118,5 +120,20 @@ public class TestPawnStructure {
         assertEquals(PawnStructureAnalyzer.get().isolatedPawnPenalty(board.blackPlayer()), PawnStructureAnalyzer.ISOLATED_PAWN_PENALTY * 3);
     }
 
-
+    @Test
+    public void testPawnHashTableScores() {
+        final Board sameRooks = FenUtilities.createGameFromFEN("r5k1/p4ppp/1p6/2P5/3P4/8/P4PPP/R5K1 w - - 0 1");
+        final Board otherPieces = FenUtilities.createGameFromFEN("2q3k1/p4ppp/1p6/2P5/3P4/4N3/P4PPP/1B4K1 b - - 0 1");
+        assertEquals(sameRooks.getPawnZobristHash(), otherPieces.getPawnZobristHash());
+        final Board pawnMoved = FenUtilities.createGameFromFEN("r5k1/p4ppp/1p6/2P5/3P4/7P/P4PP1/R5K1 b - - 0 1");
+        assertFalse(sameRooks.getPawnZobristHash() == pawnMoved.getPawnZobristHash());
+
+        for (final Board board : new Board[] {sameRooks, otherPieces, pawnMoved, sameRooks}) {
+            for (final Player player : new Player[] {board.whitePlayer(), board.blackPlayer()}) {
+                assertEquals(PawnStructureAnalyzer.get().isolatedPawnPenalty(player) +
+                        PawnStructureAnalyzer.get().doubledPawnPenalty(player),
+                        PawnStructureAnalyzer.get().pawnStructureScore(player));
+            }
+        }
+    }
 }